@@ -0,0 +1,116 @@
+package com.lukk.exchangeapp.service;
+
+import com.google.gson.Gson;
+import com.lukk.exchangeapp.ExchangeAppApplication;
+import com.lukk.exchangeapp.dto.RatesResponse;
+import com.lukk.exchangeapp.entity.Rate;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Reproducible data for benchmarks: same seed always generates same currencies, values and days.
+ */
+final class BenchmarkData {
+
+    static final LocalDate LAST_DAY = LocalDate.of(2021, 9, 1);
+
+    private static final long SEED = 42;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Start application with embedded H2 and without web server.
+     *
+     * @param properties additional application properties.
+     * @return started application context.
+     */
+    static ConfigurableApplicationContext startApplication(String... properties) {
+        return new SpringApplicationBuilder(ExchangeAppApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties("exchange.access_key=benchmark", "exchange.retention.days=100000",
+                "exchange.ingestion.enabled=false")
+            .properties(properties)
+            .run();
+    }
+
+    /**
+     * @param count of currencies.
+     * @return three letter currency codes AAA, AAB, AAC...
+     */
+    static List<String> currencies(int count) {
+        List<String> currencies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            char[] code = {(char) ('A' + i / 676), (char) ('A' + i / 26 % 26), (char) ('A' + i % 26)};
+            currencies.add(new String(code));
+        }
+        return currencies;
+    }
+
+    /**
+     * Generate Rates of given currencies for every day up to {@link #LAST_DAY}.
+     *
+     * @param currencies of generated Rates.
+     * @param days       number of generated days.
+     * @return Rates of all days and currencies.
+     */
+    static List<Rate> rates(List<String> currencies, int days) {
+        Random random = new Random(SEED);
+        List<Rate> rates = new ArrayList<>(currencies.size() * days);
+
+        for (LocalDate day = LAST_DAY.minusDays(days - 1); !day.isAfter(LAST_DAY); day = day.plusDays(1)) {
+            for (String currency : currencies) {
+                rates.add(new Rate(currency, value(random), day));
+            }
+        }
+        return rates;
+    }
+
+    /**
+     * Generate exchange service response for given currencies and day.
+     *
+     * @param currencies of response Rates.
+     * @param day        of response.
+     * @return response with Rates.
+     */
+    static RatesResponse response(List<String> currencies, LocalDate day) {
+        Random random = new Random(SEED);
+        Map<String, BigDecimal> values = new LinkedHashMap<>();
+        currencies.forEach(currency -> values.put(currency, value(random)));
+
+        RatesResponse response = new RatesResponse();
+        response.setSuccess(true);
+        response.setBase("EUR");
+        response.setDate(day);
+        response.setRates(values);
+        return response;
+    }
+
+    /**
+     * @param currencies of response Rates.
+     * @return exchange service response in the same JSON form as sent by exchange service.
+     */
+    static String responseJson(List<String> currencies) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("success", true);
+        payload.put("timestamp", 1630454400);
+        payload.put("base", "EUR");
+        payload.put("date", LAST_DAY.toString());
+        payload.put("rates", response(currencies, LAST_DAY).getRates());
+        return new Gson().toJson(payload);
+    }
+
+    private static BigDecimal value(Random random) {
+        return BigDecimal.valueOf(0.01 + random.nextDouble() * 1000).setScale(5, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,72 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.RateDTO;
+import com.lukk.exchangeapp.dto.RateRow;
+import com.lukk.exchangeapp.entity.Rate;
+import com.lukk.exchangeapp.repository.DataRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+
+import static com.lukk.exchangeapp.service.BenchmarkData.LAST_DAY;
+
+/**
+ * Read path of {@link DataService}: single day and range queries with and without cache, and DTO conversion.
+ */
+@State(Scope.Benchmark)
+public class GetRatesBenchmark {
+
+    private static final int DAYS = 365;
+
+    @Param({"3", "170"})
+    public int symbols;
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private ConfigurableApplicationContext context;
+    private DataService dataService;
+    private List<RateRow> singleDayRows;
+    private String singleDay;
+    private String range;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkData.startApplication("exchange.cache.max-days=" + (cached ? DAYS : 0));
+        dataService = context.getBean(DataService.class);
+
+        List<Rate> rates = BenchmarkData.rates(BenchmarkData.currencies(symbols), DAYS);
+        context.getBean(RateWriter.class).write(rates);
+
+        singleDay = LAST_DAY.minusDays(10).toString();
+        range = LAST_DAY.minusDays(91) + ":" + LAST_DAY;
+        singleDayRows = context.getBean(DataRepository.class).findRowsByDate(LAST_DAY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<RateDTO> getRatesSingleDay() {
+        return dataService.getRates(singleDay);
+    }
+
+    @Benchmark
+    public List<RateDTO> getRatesRange() {
+        return dataService.getRates(range);
+    }
+
+    @Benchmark
+    public List<RateDTO> convertRowsToDTO() {
+        return dataService.convertRowsToDTO(singleDayRows);
+    }
+}
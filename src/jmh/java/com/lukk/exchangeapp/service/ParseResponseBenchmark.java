@@ -0,0 +1,48 @@
+package com.lukk.exchangeapp.service;
+
+import com.google.gson.Gson;
+import com.lukk.exchangeapp.dto.RatesResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Parsing of exchange service response as done by {@link ExchangeClient}: streaming {@link RatesParser}
+ * against binding whole response with Gson as baseline.
+ */
+@State(Scope.Benchmark)
+public class ParseResponseBenchmark {
+
+    @Param({"3", "30", "170"})
+    public int symbols;
+
+    @Param({"50"})
+    public int batchSize;
+
+    private String payload;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        payload = BenchmarkData.responseJson(BenchmarkData.currencies(symbols));
+    }
+
+    @Benchmark
+    public int parseWithRatesParser(Blackhole blackhole) throws IOException {
+        return new RatesParser(batchSize).parse(new StringReader(payload), blackhole::consume);
+    }
+
+    /**
+     * Baseline: whole response bound to {@link RatesResponse}, as parsed before streaming.
+     */
+    @Benchmark
+    public RatesResponse baselineParseWithGson() {
+        return new Gson().fromJson(payload, RatesResponse.class);
+    }
+}
@@ -0,0 +1,48 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.RatesResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+
+import static com.lukk.exchangeapp.service.BenchmarkData.LAST_DAY;
+
+/**
+ * Write path of {@link DataService#saveRates}, every invocation saves new day.
+ */
+@State(Scope.Benchmark)
+public class SaveRatesBenchmark {
+
+    @Param({"3", "30", "170"})
+    public int symbols;
+
+    private ConfigurableApplicationContext context;
+    private DataService dataService;
+    private List<String> currencies;
+    private int day;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkData.startApplication();
+        dataService = context.getBean(DataService.class);
+        currencies = BenchmarkData.currencies(symbols);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void saveRates() {
+        RatesResponse response = BenchmarkData.response(currencies, LAST_DAY.minusDays(day++));
+        dataService.saveRates(response);
+    }
+}
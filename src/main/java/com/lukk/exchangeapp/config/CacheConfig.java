@@ -0,0 +1,29 @@
+package com.lukk.exchangeapp.config;
+
+import com.lukk.exchangeapp.service.RateCache;
+import com.lukk.exchangeapp.service.RateSeriesStore;
+import com.lukk.exchangeapp.service.UpstreamCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public RateCache rateCache(PropertyConfig propertyConfig) {
+        PropertyConfig.Cache cache = propertyConfig.getCache();
+        return new RateCache(cache.getMaxDays(), cache.getTtl(), Clock.systemDefaultZone());
+    }
+
+    @Bean
+    public RateSeriesStore rateSeriesStore(PropertyConfig propertyConfig) {
+        return new RateSeriesStore(propertyConfig.getStore().isEnabled());
+    }
+
+    @Bean
+    public UpstreamCache upstreamCache(PropertyConfig propertyConfig) {
+        return new UpstreamCache(propertyConfig.getUpstream().getCacheEntries());
+    }
+}
@@ -0,0 +1,72 @@
+package com.lukk.exchangeapp.config;
+
+import com.lukk.exchangeapp.service.RequestRateLimiter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor backfillExecutor(PropertyConfig propertyConfig) {
+        PropertyConfig.Backfill backfill = propertyConfig.getBackfill();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(backfill.getMaxConcurrency());
+        executor.setMaxPoolSize(backfill.getMaxConcurrency());
+        executor.setQueueCapacity(backfill.getQueueCapacity());
+        executor.setThreadNamePrefix("backfill-");
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor downloadExecutor(PropertyConfig propertyConfig) {
+        PropertyConfig.Download download = propertyConfig.getDownload();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(download.getMaxConcurrency());
+        executor.setMaxPoolSize(download.getMaxConcurrency());
+        executor.setQueueCapacity(download.getQueueCapacity());
+        executor.setThreadNamePrefix("download-");
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor streamingExecutor(PropertyConfig propertyConfig) {
+        int maxConcurrency = propertyConfig.getStreaming().getMaxConcurrency();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setThreadNamePrefix("streaming-");
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor subscriptionExecutor(PropertyConfig propertyConfig) {
+        int maxConcurrency = propertyConfig.getSubscriptions().getMaxConcurrency();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setThreadNamePrefix("subscription-");
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor providerExecutor(PropertyConfig propertyConfig) {
+        int maxConcurrency = propertyConfig.getComposite().getMaxConcurrency();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setThreadNamePrefix("provider-");
+        return executor;
+    }
+
+    @Bean
+    public RequestRateLimiter exchangeRateLimiter(PropertyConfig propertyConfig) {
+        return new RequestRateLimiter(propertyConfig.getBackfill().getRequestsPerSecond());
+    }
+}
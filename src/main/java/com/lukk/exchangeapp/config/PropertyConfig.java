@@ -1,11 +1,19 @@
 package com.lukk.exchangeapp.config;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 @Configuration
 @PropertySource("classpath:application.properties")
 @ConfigurationProperties(prefix = "exchange")
@@ -14,6 +22,217 @@ import org.springframework.context.annotation.PropertySource;
 public class PropertyConfig {
     private String accessKey;
     private String url;
+    private String historyUrl;
     private String symbols;
     private String base;
+    private String provider = "http";
+    private final Cache cache = new Cache();
+    private final Range range = new Range();
+    private final Retention retention = new Retention();
+    private final Writer writer = new Writer();
+    private final Backfill backfill = new Backfill();
+    private final Download download = new Download();
+    private final Streaming streaming = new Streaming();
+    private final Store store = new Store();
+    private final CrossRates crossRates = new CrossRates();
+    private final Aggregates aggregates = new Aggregates();
+    private final Upstream upstream = new Upstream();
+    private final Stub stub = new Stub();
+    private final Composite composite = new Composite();
+    private final Subscriptions subscriptions = new Subscriptions();
+    private final Ingestion ingestion = new Ingestion();
+    private final Storage storage = new Storage();
+    private final Export export = new Export();
+    private final HttpCache httpCache = new HttpCache();
+    private final Limits limits = new Limits();
+    private final List<Source> sources = new ArrayList<>();
+
+    /**
+     * Copy of this configuration with URLs and stub directory of given source, for provider of that source.
+     *
+     * @param source of rates configured for composite provider.
+     * @return configuration of single source.
+     */
+    public PropertyConfig forSource(Source source) {
+        PropertyConfig sourceConfig = new PropertyConfig();
+        sourceConfig.setAccessKey(source.getAccessKey() != null ? source.getAccessKey() : accessKey);
+        sourceConfig.setUrl(source.getUrl() != null ? source.getUrl() : url);
+        sourceConfig.setHistoryUrl(source.getHistoryUrl() != null ? source.getHistoryUrl() : historyUrl);
+        sourceConfig.setSymbols(symbols);
+        sourceConfig.setBase(base);
+        sourceConfig.getStub().setDir(source.getDir() != null ? source.getDir() : stub.getDir());
+        return sourceConfig;
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        private int maxDays = 400;
+        private Duration ttl = Duration.ofHours(12);
+    }
+
+    @Getter
+    @Setter
+    public static class Range {
+        private int maxDays = 400;
+    }
+
+    @Getter
+    @Setter
+    public static class Retention {
+        private int days = 365;
+        private int chunkSize = 1000;
+        private int poolSize = 1;
+    }
+
+    @Getter
+    @Setter
+    public static class Writer {
+        private int batchSize = 50;
+    }
+
+    @Getter
+    @Setter
+    public static class Backfill {
+        private int maxConcurrency = 4;
+        private double requestsPerSecond = 5;
+        private int maxDays = 366;
+        private int queueCapacity = 1000;
+        private int maxFinishedJobs = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Download {
+        private int maxConcurrency = 2;
+        private int queueCapacity = 100;
+        private int maxFinishedJobs = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Streaming {
+        private int maxConcurrency = 8;
+        private Duration timeout = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Store {
+        private boolean enabled = false;
+    }
+
+    @Getter
+    @Setter
+    public static class CrossRates {
+        private int maxDays = 31;
+    }
+
+    @Getter
+    @Setter
+    public static class Aggregates {
+        private boolean enabled = true;
+    }
+
+    @Getter
+    @Setter
+    public static class Upstream {
+        private int cacheEntries = 64;
+    }
+
+    @Getter
+    @Setter
+    public static class Stub {
+        private String dir = "stub";
+    }
+
+    @Getter
+    @Setter
+    public static class Composite {
+        private String strategy = "fastest";
+        private Duration hedgeDelay = Duration.ofMillis(200);
+        private int failureThreshold = 3;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int maxConcurrency = 8;
+    }
+
+    @Getter
+    @Setter
+    public static class Subscriptions {
+        private int maxSubscribers = 10_000;
+        private int bufferSize = 16;
+        private Duration timeout = Duration.ofMinutes(30);
+        private int maxConcurrency = 4;
+        private Duration sendTimeout = Duration.ofSeconds(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Ingestion {
+        private boolean enabled = true;
+        private String cron = "";
+        private Duration interval = Duration.ofHours(1);
+        private Duration initialDelay = Duration.ofMinutes(1);
+        private Duration jitter = Duration.ofSeconds(30);
+        private Duration backoff = Duration.ofMinutes(1);
+        private Duration maxBackoff = Duration.ofHours(1);
+        private int poolSize = 1;
+    }
+
+    @Getter
+    @Setter
+    public static class Storage {
+        private String dir = "./data";
+        private String snapshotDir = "./data/snapshots";
+        private Duration snapshotInterval = Duration.ofHours(6);
+        private int snapshots = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class Export {
+        private boolean cacheEnabled = true;
+        private String cacheDir = "";
+    }
+
+    @Getter
+    @Setter
+    public static class HttpCache {
+        private Duration pastMaxAge = Duration.ofDays(30);
+        private Duration currentMaxAge = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Limits {
+        private boolean enabled = true;
+        private int maxConcurrentRequests = 64;
+        private String clientHeader = "X-API-Key";
+        private Set<String> apiKeys = new HashSet<>();
+        private int maxClients = 10_000;
+        private final Bucket read = new Bucket(20, 40);
+        private final Bucket range = new Bucket(2, 5);
+        private final Bucket upstream = new Bucket(0.1, 2);
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private double requestsPerSecond;
+        private int burst;
+    }
+
+    @Getter
+    @Setter
+    public static class Source {
+        private String name;
+        private String type = "http";
+        private String accessKey;
+        private String url;
+        private String historyUrl;
+        private String dir;
+        private Duration timeout = Duration.ofSeconds(2);
+    }
 }
@@ -0,0 +1,69 @@
+package com.lukk.exchangeapp.config;
+
+import com.lukk.exchangeapp.service.CircuitBreaker;
+import com.lukk.exchangeapp.service.CompositeRateProvider;
+import com.lukk.exchangeapp.service.ExchangeClient;
+import com.lukk.exchangeapp.service.FileRateProvider;
+import com.lukk.exchangeapp.service.RateMetrics;
+import com.lukk.exchangeapp.service.RateProvider;
+import com.lukk.exchangeapp.service.UpstreamCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class ProviderConfig {
+
+    /**
+     * Composite of all sources from {@code exchange.sources}, or of single exchange service source
+     * configured by {@code exchange.url} when no sources are listed.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "exchange", name = "provider", havingValue = "composite")
+    public CompositeRateProvider compositeRateProvider(PropertyConfig propertyConfig, RateMetrics rateMetrics,
+                                                       UpstreamCache upstreamCache,
+                                                       ThreadPoolTaskExecutor providerExecutor) {
+        PropertyConfig.Composite composite = propertyConfig.getComposite();
+        List<PropertyConfig.Source> configured = propertyConfig.getSources().isEmpty()
+            ? List.of(new PropertyConfig.Source())
+            : propertyConfig.getSources();
+
+        List<CompositeRateProvider.Source> sources = new ArrayList<>();
+        for (int i = 0; i < configured.size(); i++) {
+            PropertyConfig.Source source = configured.get(i);
+            PropertyConfig sourceConfig = propertyConfig.forSource(source);
+
+            RateProvider provider = "file".equals(source.getType())
+                ? new FileRateProvider(sourceConfig, rateMetrics)
+                : new ExchangeClient(rest(source.getTimeout()), sourceConfig, rateMetrics, upstreamCache);
+            CircuitBreaker circuitBreaker = new CircuitBreaker(composite.getFailureThreshold(),
+                composite.getOpenDuration(), Clock.systemDefaultZone());
+            String name = source.getName() != null ? source.getName() : "source-" + i;
+
+            sources.add(new CompositeRateProvider.Source(name, provider, source.getTimeout(), circuitBreaker));
+        }
+
+        CompositeRateProvider.Strategy strategy =
+            CompositeRateProvider.Strategy.valueOf(composite.getStrategy().toUpperCase());
+        return new CompositeRateProvider(sources, strategy, composite.getHedgeDelay(), providerExecutor);
+    }
+
+    /**
+     * Client whose connect and read are limited by timeout of its source, so calls abandoned by composite
+     * do not keep executor thread blocked on unresponsive service.
+     */
+    private static RestTemplate rest(Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) timeout.toMillis());
+        requestFactory.setReadTimeout((int) timeout.toMillis());
+        return new RestTemplate(requestFactory);
+    }
+}
@@ -0,0 +1,53 @@
+package com.lukk.exchangeapp.config;
+
+import com.lukk.exchangeapp.service.DataService;
+import com.lukk.exchangeapp.service.DownloadJobService;
+import com.lukk.exchangeapp.service.IngestionScheduler;
+import com.lukk.exchangeapp.service.SnapshotService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Clock;
+
+/**
+ * Periodic work runs on schedulers separate from request threads and from each other:
+ * {@code taskScheduler} runs {@code @Scheduled} retention and DB snapshots, {@code ingestionScheduler} runs downloads.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(PropertyConfig propertyConfig) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(propertyConfig.getRetention().getPoolSize());
+        scheduler.setThreadNamePrefix("retention-");
+        return scheduler;
+    }
+
+    @Bean
+    public ThreadPoolTaskScheduler ingestionScheduler(PropertyConfig propertyConfig) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(propertyConfig.getIngestion().getPoolSize());
+        scheduler.setThreadNamePrefix("ingestion-");
+        return scheduler;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "exchange.ingestion", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public IngestionScheduler ingestion(DataService dataService, DownloadJobService downloadJobService,
+                                        ThreadPoolTaskScheduler ingestionScheduler, PropertyConfig propertyConfig) {
+        return new IngestionScheduler(dataService, downloadJobService, ingestionScheduler,
+            propertyConfig.getIngestion(), Clock.systemUTC());
+    }
+
+    @Bean
+    @Profile("persistent")
+    public SnapshotService snapshotService(JdbcTemplate jdbcTemplate, ThreadPoolTaskScheduler taskScheduler,
+                                           PropertyConfig propertyConfig) {
+        return new SnapshotService(jdbcTemplate, taskScheduler, propertyConfig.getStorage(), Clock.systemUTC());
+    }
+}
@@ -0,0 +1,213 @@
+package com.lukk.exchangeapp.controler;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.service.RateMetrics;
+import com.lukk.exchangeapp.service.TokenBucket;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control of REST API. Every client, identified by configured API key or otherwise by address, has own
+ * token bucket per kind of endpoint: single day reads, range reads and requests calling exchange service.
+ * Unknown API keys are ignored, so a client cannot get fresh buckets by sending a new key with every request.
+ * Requests over the limit of their bucket get {@code 429 Too Many Requests}, requests over the limit of concurrently
+ * handled ones get {@code 503 Service Unavailable}, both with {@code Retry-After}. Asynchronous requests, like streamed
+ * exports, count as handled until their response completes. Long-lived streams (subscriptions and streamed reads)
+ * are only rate limited, they stay open while idle and would otherwise starve every other endpoint.
+ * Number of buckets is capped, clients arriving when the cap is reached share one bucket per kind of endpoint
+ * until idle buckets are evicted. Buckets and concurrency counter are atomics, so admitted requests take no lock.
+ */
+@Component
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    enum Endpoint {
+        READ,
+        RANGE,
+        UPSTREAM
+    }
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<Endpoint, TokenBucket> shared = new EnumMap<>(Endpoint.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final PropertyConfig.Limits limits;
+    private final RateMetrics rateMetrics;
+
+    public AdmissionFilter(PropertyConfig propertyConfig, RateMetrics rateMetrics) {
+        this.limits = propertyConfig.getLimits();
+        this.rateMetrics = rateMetrics;
+        for (Endpoint endpoint : Endpoint.values()) {
+            shared.put(endpoint, newBucket(endpoint));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !limits.isEnabled() || path(request).startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        boolean counted = !isLongLived(request);
+        if (counted && inFlight.incrementAndGet() > limits.getMaxConcurrentRequests()) {
+            inFlight.decrementAndGet();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+
+        boolean async = false;
+        try {
+            long wait = bucket(client(request), classify(request)).tryAcquire(System.nanoTime());
+            if (wait > 0) {
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, wait);
+                return;
+            }
+            chain.doFilter(request, response);
+
+            if (counted && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Release());
+                async = true;
+            }
+        } finally {
+            if (counted && !async) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Drop buckets of clients which have not sent requests long enough for their bucket to refill.
+     */
+    @Scheduled(fixedDelay = 60 * 1000)
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(idle -> idle.isIdle(now));
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Kind of requested endpoint, by its cost.
+     *
+     * @param request to be classified.
+     * @return {@link Endpoint#UPSTREAM} for downloads and backfills, {@link Endpoint#RANGE} for exports, aggregates
+     * and requests of range of dates, {@link Endpoint#READ} otherwise.
+     */
+    static Endpoint classify(HttpServletRequest request) {
+        String path = path(request);
+        if (path.equals("/download") || path.equals("/backfill")) {
+            return Endpoint.UPSTREAM;
+        }
+
+        String date = request.getParameter("date");
+        if (path.startsWith("/export") || path.startsWith("/aggregates") || (date != null && date.contains(":"))) {
+            return Endpoint.RANGE;
+        }
+        return Endpoint.READ;
+    }
+
+    /**
+     * @param request to be checked.
+     * @return {@code true} for Server-Sent Events subscriptions and NDJSON streams of stored Rates.
+     */
+    static boolean isLongLived(HttpServletRequest request) {
+        String path = path(request);
+        return path.equals("/subscribe")
+            || (path.equals("/presentData") && "true".equals(request.getParameter("stream")));
+    }
+
+    private String client(HttpServletRequest request) {
+        String apiKey = request.getHeader(limits.getClientHeader());
+        if (apiKey != null && limits.getApiKeys().contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * Bucket of given client and endpoint. When number of buckets reached the cap, new clients get shared bucket
+     * of the endpoint, so a flood of new clients cannot grow memory without bound.
+     */
+    private TokenBucket bucket(String client, Endpoint endpoint) {
+        String key = endpoint + "|" + client;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+
+        if (buckets.size() >= limits.getMaxClients()) {
+            return shared.get(endpoint);
+        }
+        return buckets.computeIfAbsent(key, newKey -> newBucket(endpoint));
+    }
+
+    private TokenBucket newBucket(Endpoint endpoint) {
+        PropertyConfig.Bucket config = config(endpoint);
+        return new TokenBucket(config.getRequestsPerSecond(), config.getBurst());
+    }
+
+    private PropertyConfig.Bucket config(Endpoint endpoint) {
+        switch (endpoint) {
+            case UPSTREAM:
+                return limits.getUpstream();
+            case RANGE:
+                return limits.getRange();
+            default:
+                return limits.getRead();
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long waitNanos) {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        rateMetrics.recordRejectedRequest(status == HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Releases concurrency slot of asynchronous request when its response completes, also after error or timeout.
+     */
+    private final class Release implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            inFlight.decrementAndGet();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
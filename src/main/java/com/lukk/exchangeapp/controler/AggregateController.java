@@ -0,0 +1,42 @@
+package com.lukk.exchangeapp.controler;
+
+import com.lukk.exchangeapp.dto.AggregateDTO;
+import com.lukk.exchangeapp.service.AggregateService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@AllArgsConstructor
+@ConditionalOnProperty(prefix = "exchange.aggregates", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AggregateController {
+
+    private final AggregateService aggregateService;
+
+    @GetMapping("/aggregates")
+    public ResponseEntity<Object> aggregates(
+        @RequestParam(value = "period") String period,
+        @RequestParam(value = "from") @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+        @RequestParam(value = "to") @DateTimeFormat(iso = ISO.DATE) LocalDate to) {
+        List<AggregateDTO> aggregates = aggregateService.getAggregates(parsePeriod(period), from, to);
+        return new ResponseEntity<>(aggregates, HttpStatus.OK);
+    }
+
+    private static AggregateService.Period parsePeriod(String period) {
+        try {
+            return AggregateService.Period.valueOf(period.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown period " + period, e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.lukk.exchangeapp.controler;
+
+import com.lukk.exchangeapp.dto.ConversionDTO;
+import com.lukk.exchangeapp.service.CrossRateService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@AllArgsConstructor
+public class CrossRateController {
+
+    private final CrossRateService crossRateService;
+
+    @GetMapping("/convert")
+    public ResponseEntity<Object> convert(@RequestParam(value = "date") @DateTimeFormat(iso = ISO.DATE) LocalDate date,
+                                          @RequestParam(value = "from") String from,
+                                          @RequestParam(value = "to") String to,
+                                          @RequestParam(value = "amount", defaultValue = "1") BigDecimal amount) {
+        ConversionDTO conversion = crossRateService.convert(date, from, to, amount);
+        return new ResponseEntity<>(conversion, HttpStatus.OK);
+    }
+
+    @GetMapping("/crossRates")
+    public ResponseEntity<Object> crossRates(
+        @RequestParam(value = "date") @DateTimeFormat(iso = ISO.DATE) LocalDate date,
+        @RequestParam(value = "from") String from) {
+        Map<String, BigDecimal> rates = crossRateService.getCrossRates(date, from);
+        return new ResponseEntity<>(rates, HttpStatus.OK);
+    }
+}
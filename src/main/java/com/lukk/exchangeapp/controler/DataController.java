@@ -1,33 +1,144 @@
 package com.lukk.exchangeapp.controler;
 
-import com.lukk.exchangeapp.dto.RateDTO;
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.dto.BackfillJob;
+import com.lukk.exchangeapp.dto.DownloadJob;
+import com.lukk.exchangeapp.service.BackfillService;
 import com.lukk.exchangeapp.service.DataService;
+import com.lukk.exchangeapp.service.DateRange;
+import com.lukk.exchangeapp.service.DownloadJobService;
+import com.lukk.exchangeapp.service.ExportFormat;
+import com.lukk.exchangeapp.service.ExportService;
+import com.lukk.exchangeapp.service.RateFilter;
+import com.lukk.exchangeapp.service.RateFingerprints;
+import com.lukk.exchangeapp.service.RateStreamService;
 import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.text.ParseException;
-import java.util.List;
+import java.net.URI;
+import java.time.LocalDate;
 
 @RestController
 @AllArgsConstructor
 public class DataController {
 
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    public static final int MAX_PAGE_SIZE = 10_000;
+
     private final DataService dataService;
+    private final BackfillService backfillService;
+    private final RateStreamService rateStreamService;
+    private final DownloadJobService downloadJobService;
+    private final ExportService exportService;
+    private final RateFingerprints rateFingerprints;
+    private final PropertyConfig propertyConfig;
 
     @GetMapping("/download")
     public ResponseEntity<Object> download() {
-        dataService.downloadData();
-        return new ResponseEntity<>(HttpStatus.ACCEPTED);
+        DownloadJob job = downloadJobService.submit();
+        return ResponseEntity.accepted().location(URI.create("/download/" + job.getId())).body(job);
+    }
+
+    @GetMapping("/download/{id}")
+    public ResponseEntity<Object> downloadStatus(@PathVariable("id") String id) {
+        return downloadJobService.getJob(id)
+            .map(job -> new ResponseEntity<Object>(job, HttpStatus.OK))
+            .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    /**
+     * Rates are sent with entity tag of stored Rates of requested days, request with matching tag
+     * gets {@code 304 Not Modified} without any query. Ranges which end before today and have Rates of every day
+     * stored are cacheable for long, other ranges only shortly, as their missing Rates can still be downloaded
+     * or backfilled.
+     */
     @GetMapping("/presentData")
-    public ResponseEntity<Object> presentData(@RequestParam(value = "date", required = false) String date) throws ParseException {
-        List<RateDTO> rates = dataService.getRates(date);
-        return new ResponseEntity<>(rates, HttpStatus.OK);
+    public ResponseEntity<Object> presentData(@RequestParam(value = "date", required = false) String date,
+                                              @RequestParam(value = "symbols", required = false) String symbols,
+                                              @RequestParam(value = "base", required = false) String base,
+                                              @RequestParam(value = "after", required = false) String after,
+                                              @RequestParam(value = "limit", required = false) Integer limit,
+                                              WebRequest request) {
+        if (limit != null && (limit <= 0 || limit > MAX_PAGE_SIZE)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        DateRange dateRange = DateRange.parse(date);
+        CacheControl cacheControl = cacheControl(dateRange);
+        String etag = rateFingerprints.etag(dateRange, symbols, base, after, limit);
+        if (etag != null && request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+
+        Object body = limit != null
+            ? dataService.getRatesPage(date, symbols, base, after, limit)
+            : dataService.getRates(date, symbols, base);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(cacheControl);
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        return response.body(body);
+    }
+
+    @GetMapping(value = "/presentData", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamData(
+        @RequestParam(value = "date") String date,
+        @RequestParam(value = "symbols", required = false) String symbols,
+        @RequestParam(value = "base", required = false) String base) {
+        DateRange dateRange = DateRange.parse(date);
+        RateFilter filter = RateFilter.of(symbols, base, propertyConfig.getBase());
+        StreamingResponseBody body = outputStream -> rateStreamService.writeRates(dateRange, filter, outputStream);
+
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+        @RequestParam(value = "date") String date,
+        @RequestParam(value = "format", defaultValue = "csv") String format) {
+        DateRange dateRange = DateRange.parse(date);
+        ExportFormat exportFormat = ExportFormat.of(format);
+        StreamingResponseBody body = outputStream -> exportService.export(dateRange, exportFormat, outputStream);
+
+        return ResponseEntity.ok().contentType(exportFormat.getMediaType()).body(body);
+    }
+
+    @PostMapping("/backfill")
+    public ResponseEntity<Object> backfill(@RequestParam(value = "from") @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+                                           @RequestParam(value = "to") @DateTimeFormat(iso = ISO.DATE) LocalDate to) {
+        BackfillJob job = backfillService.submit(from, to);
+        return ResponseEntity.accepted().location(URI.create("/backfill/" + job.getId())).body(job);
+    }
+
+    @GetMapping("/backfill/{id}")
+    public ResponseEntity<Object> backfillStatus(@PathVariable("id") String id) {
+        return backfillService.getJob(id)
+            .map(job -> new ResponseEntity<Object>(job, HttpStatus.OK))
+            .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    private CacheControl cacheControl(DateRange dateRange) {
+        LocalDate last = dateRange.isRange() ? dateRange.getEnd().minusDays(1) : dateRange.getEnd();
+        PropertyConfig.HttpCache httpCache = propertyConfig.getHttpCache();
+
+        return last.isBefore(LocalDate.now()) && rateFingerprints.isComplete(dateRange)
+            ? CacheControl.maxAge(httpCache.getPastMaxAge()).cachePublic()
+            : CacheControl.maxAge(httpCache.getCurrentMaxAge()).cachePublic().mustRevalidate();
     }
 
 }
@@ -0,0 +1,21 @@
+package com.lukk.exchangeapp.controler;
+
+import com.lukk.exchangeapp.service.RateBroadcaster;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@AllArgsConstructor
+public class SubscriptionController {
+
+    private final RateBroadcaster rateBroadcaster;
+
+    @GetMapping(value = "/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestParam(value = "symbols", required = false) String symbols) {
+        return rateBroadcaster.subscribe(symbols);
+    }
+}
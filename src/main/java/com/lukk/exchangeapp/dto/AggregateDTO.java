@@ -0,0 +1,21 @@
+package com.lukk.exchangeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class AggregateDTO {
+
+    private String currencyName;
+    private String start;
+    private String end;
+    private int days;
+    private BigDecimal open;
+    private BigDecimal high;
+    private BigDecimal low;
+    private BigDecimal close;
+    private BigDecimal mean;
+}
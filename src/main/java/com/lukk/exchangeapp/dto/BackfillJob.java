@@ -0,0 +1,22 @@
+package com.lukk.exchangeapp.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class BackfillJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final String id;
+    private final String from;
+    private final String to;
+    private final Instant submittedAt = Instant.now();
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant finishedAt;
+    private volatile BackfillResult result;
+    private volatile String error;
+}
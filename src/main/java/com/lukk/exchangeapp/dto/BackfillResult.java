@@ -0,0 +1,13 @@
+package com.lukk.exchangeapp.dto;
+
+import lombok.Data;
+
+@Data
+public class BackfillResult {
+
+    private int requested;
+    private int skipped;
+    private int downloaded;
+    private int failed;
+    private int savedRates;
+}
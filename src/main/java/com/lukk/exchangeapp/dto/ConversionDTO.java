@@ -0,0 +1,18 @@
+package com.lukk.exchangeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class ConversionDTO {
+
+    private String from;
+    private String to;
+    private String date;
+    private BigDecimal amount;
+    private BigDecimal rate;
+    private BigDecimal result;
+}
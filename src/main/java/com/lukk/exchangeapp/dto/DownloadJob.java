@@ -0,0 +1,20 @@
+package com.lukk.exchangeapp.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class DownloadJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final String id;
+    private final Instant submittedAt = Instant.now();
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant finishedAt;
+    private volatile int savedRates;
+    private volatile String error;
+}
@@ -0,0 +1,34 @@
+package com.lukk.exchangeapp.dto;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Reads and writes calendar days as {@code yyyy-MM-dd} strings, which is format used by exchange service.
+ */
+public class LocalDateAdapter extends TypeAdapter<LocalDate> {
+
+    @Override
+    public void write(JsonWriter out, LocalDate day) throws IOException {
+        if (day == null) {
+            out.nullValue();
+            return;
+        }
+        out.value(DateTimeFormatter.ISO_LOCAL_DATE.format(day));
+    }
+
+    @Override
+    public LocalDate read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return LocalDate.parse(in.nextString(), DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+}
@@ -0,0 +1,18 @@
+package com.lukk.exchangeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class RatePage {
+
+    private List<RateDTO> rates;
+
+    /**
+     * Cursor of next page in {@code yyyy-MM-dd:CUR} format, {@code null} on last page.
+     */
+    private String next;
+}
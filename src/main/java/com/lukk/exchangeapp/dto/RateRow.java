@@ -0,0 +1,20 @@
+package com.lukk.exchangeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of Rate with only the columns returned to clients, created directly by JPQL constructor
+ * expressions, so query results are neither hydrated as entities nor tracked by persistence context.
+ */
+@Data
+@AllArgsConstructor
+public class RateRow {
+
+    private String currencyName;
+    private BigDecimal value;
+    private LocalDate date;
+}
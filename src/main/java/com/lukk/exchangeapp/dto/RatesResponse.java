@@ -1,9 +1,10 @@
 package com.lukk.exchangeapp.dto;
 
+import com.google.gson.annotations.JsonAdapter;
 import lombok.Data;
 
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.Map;
 
 @Data
@@ -11,6 +12,7 @@ public class RatesResponse {
     boolean success;
     int timestamp;
     String base;
-    Date date;
+    @JsonAdapter(LocalDateAdapter.class)
+    LocalDate date;
     Map<String, BigDecimal> rates;
 }
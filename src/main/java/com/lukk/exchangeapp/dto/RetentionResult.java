@@ -0,0 +1,16 @@
+package com.lukk.exchangeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class RetentionResult {
+
+    private LocalDate cutoff;
+    private long deleted;
+    private Duration duration;
+}
@@ -0,0 +1,23 @@
+package com.lukk.exchangeapp.entity;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.time.LocalDate;
+
+/**
+ * Stores calendar day as number of days since epoch, so day columns are plain integers
+ * compared and indexed without any time zone or time of day involved.
+ */
+@Converter
+public class EpochDayConverter implements AttributeConverter<LocalDate, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(LocalDate day) {
+        return day == null ? null : Math.toIntExact(day.toEpochDay());
+    }
+
+    @Override
+    public LocalDate convertToEntityAttribute(Integer epochDay) {
+        return epochDay == null ? null : LocalDate.ofEpochDay(epochDay);
+    }
+}
@@ -5,26 +5,33 @@ import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDate;
 
 @Data
 @Entity
 @NoArgsConstructor
+@Table(name = "rate",
+    indexes = @Index(name = "idx_rate_date", columnList = "date"),
+    uniqueConstraints = @UniqueConstraint(name = "uk_rate_date_currency", columnNames = {"date", "currency_name"}))
 public class Rate {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rate_seq")
+    @SequenceGenerator(name = "rate_seq", sequenceName = "rate_seq", allocationSize = 1)
     @Column(name = "id", nullable = false)
     private Long id;
 
+    @Column(name = "currency_name")
     private String currencyName;
 
     @Column(precision = 12, scale = 5)
     private BigDecimal value;
 
-    private Date date;
+    @Column(name = "date")
+    @Convert(converter = EpochDayConverter.class)
+    private LocalDate date;
 
-    public Rate(String currencyName, BigDecimal value, Date date) {
+    public Rate(String currencyName, BigDecimal value, LocalDate date) {
         this.currencyName = currencyName;
         this.value = value;
         this.date = date;
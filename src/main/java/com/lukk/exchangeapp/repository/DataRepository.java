@@ -1,20 +1,68 @@
 package com.lukk.exchangeapp.repository;
 
+import com.lukk.exchangeapp.dto.RateRow;
 import com.lukk.exchangeapp.entity.Rate;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Date;
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
-public interface DataRepository extends JpaRepository<Rate, Long> {
+public interface DataRepository extends JpaRepository<Rate, Long>, DataRepositoryCustom {
+
+    List<Rate> findAllByDateBefore(LocalDate olderThan);
+
+    Rate findFirstByDateEquals(LocalDate date);
+
+    Rate findFirstByOrderByDateDesc();
+
+    List<Rate> findAllByDate(LocalDate date);
+
+    List<Rate> findAllByDateAfterAndDateBefore(LocalDate start, LocalDate end);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select new com.lukk.exchangeapp.dto.RateRow(r.currencyName, r.value, r.date) from Rate r "
+        + "where r.date = :date")
+    List<RateRow> findRowsByDate(@Param("date") LocalDate date);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select new com.lukk.exchangeapp.dto.RateRow(r.currencyName, r.value, r.date) from Rate r "
+        + "where r.date > :start and r.date < :end order by r.date")
+    List<RateRow> findRowsByDateAfterAndDateBefore(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @Query("select distinct r.date from Rate r where r.date > :start and r.date < :end order by r.date")
+    List<LocalDate> findStoredDays(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select new com.lukk.exchangeapp.dto.RateRow(r.currencyName, r.value, r.date) from Rate r "
+        + "where r.date = :date")
+    Stream<RateRow> streamRowsByDate(@Param("date") LocalDate date);
 
-    List<Rate> findAllByDateBefore(Date olderThan);
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select new com.lukk.exchangeapp.dto.RateRow(r.currencyName, r.value, r.date) from Rate r "
+        + "where r.date > :start and r.date < :end order by r.date")
+    Stream<RateRow> streamRowsByDateAfterAndDateBefore(@Param("start") LocalDate start, @Param("end") LocalDate end);
 
-    Rate findFirstByDateEquals(Date date);
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select new com.lukk.exchangeapp.dto.RateRow(r.currencyName, r.value, r.date) from Rate r order by r.date")
+    Stream<RateRow> streamRowsByOrderByDate();
 
-    List<Rate> findAllByDate(Date date);
+    @Query("select r.id from Rate r where r.date < :olderThan order by r.id")
+    List<Long> findIdsByDateBefore(@Param("olderThan") LocalDate olderThan, Pageable pageable);
 
-    List<Rate> findAllByDateAfterAndDateBefore(Date start, Date end);
+    @Modifying
+    @Query("delete from Rate r where r.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,28 @@
+package com.lukk.exchangeapp.repository;
+
+import com.lukk.exchangeapp.dto.RateRow;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Queries of Rate projections with optional filters, built at runtime so only used conditions reach DB.
+ */
+public interface DataRepositoryCustom {
+
+    /**
+     * Find Rates between given dates (both exclusive) ordered by date and currency name,
+     * which is order of {@code (date, currency_name)} unique index.
+     *
+     * @param start         day before first returned day.
+     * @param end           day after last returned day.
+     * @param currencyNames of returned Rates, {@code null} for all currencies.
+     * @param afterDate     date of last Rate of previous page, {@code null} for first page.
+     * @param afterCurrency currency of last Rate of previous page, ignored for first page.
+     * @param limit         maximal number of returned Rates, 0 for all.
+     * @return List of Rate projections.
+     */
+    List<RateRow> findRows(LocalDate start, LocalDate end, Collection<String> currencyNames,
+                           LocalDate afterDate, String afterCurrency, int limit);
+}
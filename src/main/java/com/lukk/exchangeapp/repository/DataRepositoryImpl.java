@@ -0,0 +1,53 @@
+package com.lukk.exchangeapp.repository;
+
+import com.lukk.exchangeapp.dto.RateRow;
+import lombok.RequiredArgsConstructor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+@RequiredArgsConstructor
+public class DataRepositoryImpl implements DataRepositoryCustom {
+
+    private static final int FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<RateRow> findRows(LocalDate start, LocalDate end, Collection<String> currencyNames,
+                                  LocalDate afterDate, String afterCurrency, int limit) {
+        StringBuilder jpql = new StringBuilder(
+            "select new com.lukk.exchangeapp.dto.RateRow(r.currencyName, r.value, r.date) from Rate r "
+                + "where r.date > :start and r.date < :end");
+        if (currencyNames != null) {
+            jpql.append(" and r.currencyName in :currencyNames");
+        }
+        if (afterDate != null) {
+            jpql.append(" and (r.date > :afterDate or (r.date = :afterDate and r.currencyName > :afterCurrency))");
+        }
+        jpql.append(" order by r.date, r.currencyName");
+
+        TypedQuery<RateRow> query = entityManager.createQuery(jpql.toString(), RateRow.class)
+            .setParameter("start", start)
+            .setParameter("end", end)
+            .setHint(HINT_FETCH_SIZE, limit > 0 ? Math.min(limit, FETCH_SIZE) : FETCH_SIZE)
+            .setHint(HINT_READONLY, true);
+        if (currencyNames != null) {
+            query.setParameter("currencyNames", currencyNames);
+        }
+        if (afterDate != null) {
+            query.setParameter("afterDate", afterDate).setParameter("afterCurrency", afterCurrency);
+        }
+        if (limit > 0) {
+            query.setMaxResults(limit);
+        }
+
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,265 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.AggregateDTO;
+import com.lukk.exchangeapp.dto.RateDTO;
+import com.lukk.exchangeapp.dto.RateRow;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.lukk.exchangeapp.service.RateSeriesStore.SCALE;
+
+/**
+ * Daily, weekly and monthly open, high, low, close and mean of every currency, so long range analytics read
+ * one row per currency and period instead of every stored Rate.
+ * Aggregates are filled by {@link StoredRatesLoader} once application is started, then kept up to date
+ * from saved and purged Rates.
+ * Every period keeps values of its days, so saving already stored day again replaces its value.
+ * Aggregates are held in memory, so they can be turned off with {@code exchange.aggregates.enabled=false}.
+ */
+@Service
+@ConditionalOnProperty(prefix = "exchange.aggregates", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AggregateService {
+
+    public enum Period {
+        DAY {
+            @Override
+            LocalDate start(LocalDate day) {
+                return day;
+            }
+
+            @Override
+            LocalDate end(LocalDate start) {
+                return start;
+            }
+        },
+        WEEK {
+            @Override
+            LocalDate start(LocalDate day) {
+                return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            }
+
+            @Override
+            LocalDate end(LocalDate start) {
+                return start.plusDays(6);
+            }
+        },
+        MONTH {
+            @Override
+            LocalDate start(LocalDate day) {
+                return day.withDayOfMonth(1);
+            }
+
+            @Override
+            LocalDate end(LocalDate start) {
+                return start.with(TemporalAdjusters.lastDayOfMonth());
+            }
+        };
+
+        /**
+         * @param day within period.
+         * @return first day of period.
+         */
+        abstract LocalDate start(LocalDate day);
+
+        /**
+         * @param start first day of period.
+         * @return last day of period.
+         */
+        abstract LocalDate end(LocalDate start);
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Period, NavigableMap<LocalDate, Map<String, Bucket>>> buckets = new EnumMap<>(Period.class);
+
+    public AggregateService() {
+        for (Period period : Period.values()) {
+            buckets.put(period, new TreeMap<>());
+        }
+    }
+
+    /**
+     * Get aggregates of all periods overlapping given days.
+     *
+     * @param period of aggregates.
+     * @param from   first day.
+     * @param to     last day.
+     * @return aggregates ordered by period and currency name.
+     * @throws ResponseStatusException with {@code 400 Bad Request} status when last day is before first one.
+     */
+    public List<AggregateDTO> getAggregates(Period period, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to " + to + " is before from " + from);
+        }
+        List<AggregateDTO> aggregates = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            NavigableMap<LocalDate, Map<String, Bucket>> overlapping =
+                buckets.get(period).subMap(period.start(from), true, to, true);
+
+            for (Map<String, Bucket> periodBuckets : overlapping.values()) {
+                periodBuckets.values().forEach(bucket -> aggregates.add(bucket.toDTO()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return aggregates;
+    }
+
+    /**
+     * Add stored Rates read at startup.
+     *
+     * @param rows of stored Rates.
+     */
+    public void putRows(Collection<RateRow> rows) {
+        for (RateRow row : rows) {
+            put(row.getDate(), row.getCurrencyName(), row.getValue());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatesSaved(RatesSavedEvent event) {
+        for (RateDTO rate : event.getRates()) {
+            put(event.getDay(), rate.getCurrencyName(), rate.getValue());
+        }
+    }
+
+    /**
+     * Drop days before retention cutoff, periods left without any day are removed.
+     *
+     * @param event with first day which stays stored.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatesPurged(RatesPurgedEvent event) {
+        LocalDate cutoff = event.getCutoff();
+
+        lock.writeLock().lock();
+        try {
+            for (NavigableMap<LocalDate, Map<String, Bucket>> periodBuckets : buckets.values()) {
+                Iterator<Map<String, Bucket>> iterator = periodBuckets.headMap(cutoff, false).values().iterator();
+
+                while (iterator.hasNext()) {
+                    Map<String, Bucket> currencyBuckets = iterator.next();
+                    currencyBuckets.values().removeIf(bucket -> bucket.removeBefore(cutoff));
+                    if (currencyBuckets.isEmpty()) {
+                        iterator.remove();
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(LocalDate day, String currencyName, BigDecimal value) {
+        long scaled = value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+
+        lock.writeLock().lock();
+        try {
+            for (Period period : Period.values()) {
+                LocalDate start = period.start(day);
+                buckets.get(period)
+                    .computeIfAbsent(start, key -> new TreeMap<>())
+                    .computeIfAbsent(currencyName, key -> new Bucket(currencyName, start, period.end(start)))
+                    .put(day, scaled);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Values of single currency in single period, indexed by day of period, and aggregates computed from them.
+     */
+    private static final class Bucket {
+
+        private static final long MISSING = Long.MIN_VALUE;
+
+        private final String currencyName;
+        private final LocalDate start;
+        private final LocalDate end;
+        private final long[] values;
+
+        private int days;
+        private long open;
+        private long high;
+        private long low;
+        private long close;
+        private long sum;
+
+        private Bucket(String currencyName, LocalDate start, LocalDate end) {
+            this.currencyName = currencyName;
+            this.start = start;
+            this.end = end;
+            this.values = new long[(int) ChronoUnit.DAYS.between(start, end) + 1];
+            Arrays.fill(values, MISSING);
+        }
+
+        private void put(LocalDate day, long value) {
+            values[(int) ChronoUnit.DAYS.between(start, day)] = value;
+            recompute();
+        }
+
+        /**
+         * @return {@code true} when bucket has no day left.
+         */
+        private boolean removeBefore(LocalDate cutoff) {
+            int removed = (int) Math.min(values.length, ChronoUnit.DAYS.between(start, cutoff));
+            Arrays.fill(values, 0, removed, MISSING);
+            recompute();
+            return days == 0;
+        }
+
+        private void recompute() {
+            days = 0;
+            sum = 0;
+            high = Long.MIN_VALUE;
+            low = Long.MAX_VALUE;
+
+            for (long value : values) {
+                if (value == MISSING) {
+                    continue;
+                }
+                if (days == 0) {
+                    open = value;
+                }
+                close = value;
+                high = Math.max(high, value);
+                low = Math.min(low, value);
+                sum += value;
+                days++;
+            }
+        }
+
+        private AggregateDTO toDTO() {
+            BigDecimal mean = BigDecimal.valueOf(sum, SCALE)
+                .divide(BigDecimal.valueOf(days), SCALE, RoundingMode.HALF_UP);
+
+            return new AggregateDTO(currencyName, start.toString(), end.toString(), days,
+                BigDecimal.valueOf(open, SCALE), BigDecimal.valueOf(high, SCALE), BigDecimal.valueOf(low, SCALE),
+                BigDecimal.valueOf(close, SCALE), mean);
+        }
+    }
+}
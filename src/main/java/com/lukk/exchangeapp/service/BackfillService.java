@@ -0,0 +1,193 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.dto.BackfillJob;
+import com.lukk.exchangeapp.dto.BackfillResult;
+import com.lukk.exchangeapp.dto.RatesResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+/**
+ * Downloads history of range of days as background jobs, so request threads are never blocked by upstream calls.
+ * Finished jobs are kept for status queries until number of them exceeds configured limit.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BackfillService {
+
+    private final RateProvider rateProvider;
+    private final DataService dataService;
+    private final ThreadPoolTaskExecutor backfillExecutor;
+    private final RequestRateLimiter exchangeRateLimiter;
+    private final PropertyConfig propertyConfig;
+    private final SingleFlight<String, RatesResponse> downloads = new SingleFlight<>();
+    private final Map<String, BackfillJob> jobs = new ConcurrentHashMap<>();
+    private final Queue<String> finishedJobs = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Queue backfill of given range as background job.
+     *
+     * @param from first day of range.
+     * @param to   last day of range.
+     * @return queued job.
+     * @throws ResponseStatusException with 400 status when range ends before it starts or is longer than
+     *                                 configured limit, with 503 status when backfill queue is full.
+     */
+    public BackfillJob submit(LocalDate from, LocalDate to) {
+        int maxDays = propertyConfig.getBackfill().getMaxDays();
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to " + to + " is before from " + from);
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Backfill cannot be longer than " + maxDays + " days");
+        }
+
+        BackfillJob job = new BackfillJob(UUID.randomUUID().toString(), from.toString(), to.toString());
+        jobs.put(job.getId(), job);
+
+        try {
+            CompletableFuture.supplyAsync(() -> {
+                job.setStatus(BackfillJob.Status.RUNNING);
+                return backfill(from, to);
+            }, backfillExecutor)
+                .thenCompose(Function.identity())
+                .whenComplete((result, error) -> finish(job, result, error));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Backfill queue is full", e);
+        }
+        return job;
+    }
+
+    public Optional<BackfillJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Download and save Rates for every not yet registered day of given range.
+     * Days are downloaded in parallel on bounded executor, requests are rate limited.
+     * Day which is already being downloaded by concurrent backfill is not downloaded again, its result is shared.
+     * Days rejected by full executor queue count as failed.
+     *
+     * @param from first day of range.
+     * @param to   last day of range.
+     * @return future of summary of requested, skipped, downloaded and failed days, completed once all days are done.
+     */
+    public CompletableFuture<BackfillResult> backfill(LocalDate from, LocalDate to) {
+        BackfillResult result = new BackfillResult();
+        List<CompletableFuture<RatesResponse>> dayDownloads = new ArrayList<>();
+
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            result.setRequested(result.getRequested() + 1);
+
+            if (dataService.isAlreadyRegistered(day)) {
+                result.setSkipped(result.getSkipped() + 1);
+            } else {
+                dayDownloads.add(downloadAndSave(day));
+            }
+        }
+
+        CompletableFuture<?>[] done = dayDownloads.stream()
+            .map(download -> download.exceptionally(e -> null))
+            .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(done).thenApply(ignored -> {
+            for (CompletableFuture<RatesResponse> download : dayDownloads) {
+                try {
+                    RatesResponse ratesResponse = download.join();
+
+                    result.setDownloaded(result.getDownloaded() + 1);
+                    result.setSavedRates(result.getSavedRates() + ratesResponse.getRates().size());
+                } catch (CompletionException e) {
+                    log.warn("Backfill of single day failed", e.getCause());
+                    result.setFailed(result.getFailed() + 1);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Download and save Rates of single day, or join such download when it is already in flight.
+     * Downloads are deduplicated by day and configured symbols.
+     *
+     * @param day to be downloaded.
+     * @return future of saved response.
+     */
+    private CompletableFuture<RatesResponse> downloadAndSave(LocalDate day) {
+        String key = day + "|" + propertyConfig.getSymbols();
+
+        return downloads.execute(key, () -> CompletableFuture
+            .supplyAsync(() -> download(day), backfillExecutor)
+            .thenApply(ratesResponse -> {
+                dataService.saveRates(ratesResponse);
+                return ratesResponse;
+            }));
+    }
+
+    /**
+     * Record outcome of job, then forget the oldest finished jobs above limit.
+     */
+    private void finish(BackfillJob job, BackfillResult result, Throwable error) {
+        if (error == null) {
+            job.setResult(result);
+            job.setStatus(BackfillJob.Status.SUCCEEDED);
+        } else {
+            log.warn("Backfill job {} failed", job.getId(), error);
+            job.setError(error.getMessage());
+            job.setStatus(BackfillJob.Status.FAILED);
+        }
+        job.setFinishedAt(Instant.now());
+
+        finishedJobs.add(job.getId());
+        while (finishedJobs.size() > propertyConfig.getBackfill().getMaxFinishedJobs()) {
+            String oldest = finishedJobs.poll();
+            if (oldest != null) {
+                jobs.remove(oldest);
+            }
+        }
+    }
+
+    /**
+     * Download Rates of single day, waiting for rate limiter first.
+     *
+     * @param day to be downloaded.
+     * @return Response with rate data.
+     */
+    private RatesResponse download(LocalDate day) {
+        try {
+            exchangeRateLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for download of " + day, e);
+        }
+
+        RatesResponse ratesResponse = rateProvider.getHistorical(day);
+        if (ratesResponse == null || !ratesResponse.isSuccess() || ratesResponse.getRates() == null) {
+            throw new IllegalStateException("No rates returned for " + day);
+        }
+        return ratesResponse;
+    }
+}
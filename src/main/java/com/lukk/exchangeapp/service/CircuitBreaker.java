@@ -0,0 +1,58 @@
+package com.lukk.exchangeapp.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Takes failing or slow provider out of rotation.
+ * After configured number of consecutive failures breaker opens and rejects requests for configured time,
+ * then lets single trial request through: its success closes breaker, its failure opens it again.
+ */
+public class CircuitBreaker {
+
+    private static final long CLOSED = 0;
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Clock clock;
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicLong openUntil = new AtomicLong(CLOSED);
+    private final AtomicBoolean trial = new AtomicBoolean();
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openDuration.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * @return {@code true} when breaker is closed, or when it is open long enough and this caller got the trial request.
+     */
+    public boolean allowRequest() {
+        long until = openUntil.get();
+        if (until == CLOSED) {
+            return true;
+        }
+        return clock.millis() >= until && trial.compareAndSet(false, true);
+    }
+
+    public void recordSuccess() {
+        failures.set(0);
+        openUntil.set(CLOSED);
+        trial.set(false);
+    }
+
+    public void recordFailure() {
+        if (failures.incrementAndGet() >= failureThreshold || trial.get()) {
+            openUntil.set(clock.millis() + openMillis);
+            trial.set(false);
+        }
+    }
+
+    public boolean isOpen() {
+        return openUntil.get() != CLOSED;
+    }
+}
@@ -0,0 +1,206 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.RatesResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Queries several providers in parallel, so ingest latency does not depend on the slowest of them.
+ * With {@link Strategy#FASTEST} first provider is called at once and every next one after hedge delay,
+ * or immediately when previous one failed; first valid response wins.
+ * With {@link Strategy#MERGE} all providers are called at once and Rates of their valid responses are merged,
+ * earlier configured provider wins when more of them return the same currency.
+ * Every call is limited by timeout of its provider and providers whose circuit breaker is open are skipped.
+ * Circuit breaker is asked only when its provider is about to be called, so providers which are never reached
+ * do not use up trial request of half-open breaker. Timeout only stops waiting for the call, providers are expected
+ * to bound their own calls with the same timeout, so the executor thread is released as well.
+ */
+@Slf4j
+public class CompositeRateProvider implements RateProvider {
+
+    public enum Strategy {
+        FASTEST,
+        MERGE
+    }
+
+    private final List<Source> sources;
+    private final Strategy strategy;
+    private final long hedgeDelayMillis;
+    private final Executor executor;
+
+    public CompositeRateProvider(List<Source> sources, Strategy strategy, Duration hedgeDelay, Executor executor) {
+        this.sources = List.copyOf(sources);
+        this.strategy = strategy;
+        this.hedgeDelayMillis = hedgeDelay.toMillis();
+        this.executor = executor;
+    }
+
+    @Override
+    public RatesResponse getLatest() {
+        return fetch(RateProvider::getLatest);
+    }
+
+    @Override
+    public RatesResponse getHistorical(LocalDate day) {
+        return fetch(provider -> provider.getHistorical(day));
+    }
+
+    public List<Source> getSources() {
+        return sources;
+    }
+
+    private RatesResponse fetch(Function<RateProvider, RatesResponse> call) {
+        try {
+            return strategy == Strategy.MERGE ? merge(call) : fastest(call);
+        } catch (CompletionException e) {
+            throw new IllegalStateException("No rate provider returned valid rates", e.getCause());
+        }
+    }
+
+    private RatesResponse fastest(Function<RateProvider, RatesResponse> call) {
+        Race race = new Race(call);
+        race.launchNext();
+
+        for (int i = 1; i < sources.size(); i++) {
+            CompletableFuture.delayedExecutor(hedgeDelayMillis * i, TimeUnit.MILLISECONDS, executor)
+                .execute(race::launchNext);
+        }
+        return race.winner.join();
+    }
+
+    private RatesResponse merge(Function<RateProvider, RatesResponse> call) {
+        List<CompletableFuture<RatesResponse>> calls = sources.stream()
+            .filter(source -> source.getCircuitBreaker().allowRequest())
+            .map(source -> call(source, call).exceptionally(e -> null))
+            .collect(Collectors.toList());
+        if (calls.isEmpty()) {
+            throw new IllegalStateException("All rate providers are unavailable");
+        }
+
+        List<RatesResponse> responses = calls.stream()
+            .map(CompletableFuture::join)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+        if (responses.isEmpty()) {
+            throw new CompletionException(new IllegalStateException("All rate providers failed"));
+        }
+
+        RatesResponse first = responses.get(0);
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        for (RatesResponse response : responses) {
+            if (Objects.equals(first.getDate(), response.getDate())
+                && Objects.equals(first.getBase(), response.getBase())) {
+                response.getRates().forEach(rates::putIfAbsent);
+            }
+        }
+
+        RatesResponse merged = new RatesResponse();
+        merged.setSuccess(true);
+        merged.setTimestamp(first.getTimestamp());
+        merged.setBase(first.getBase());
+        merged.setDate(first.getDate());
+        merged.setRates(rates);
+        return merged;
+    }
+
+    /**
+     * Call single provider on executor, limited by its timeout.
+     * Outcome is recorded in provider's circuit breaker, response without date or Rates counts as failure.
+     */
+    private CompletableFuture<RatesResponse> call(Source source, Function<RateProvider, RatesResponse> call) {
+        return CompletableFuture.supplyAsync(() -> call.apply(source.getProvider()), executor)
+            .orTimeout(source.getTimeout().toMillis(), TimeUnit.MILLISECONDS)
+            .thenApply(response -> {
+                if (response == null || response.getDate() == null
+                    || response.getRates() == null || response.getRates().isEmpty()) {
+                    throw new IllegalStateException("Invalid response of rate provider " + source.getName());
+                }
+                return response;
+            })
+            .whenComplete((response, error) -> {
+                if (error == null) {
+                    source.getCircuitBreaker().recordSuccess();
+                } else {
+                    log.warn("Rate provider {} failed: {}", source.getName(), error.toString());
+                    source.getCircuitBreaker().recordFailure();
+                }
+            });
+    }
+
+    /**
+     * Hedged calls of providers in configured order, completed by first valid response
+     * or exceptionally when all providers failed or were skipped by their circuit breaker.
+     */
+    private final class Race {
+
+        private final CompletableFuture<RatesResponse> winner = new CompletableFuture<>();
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final Function<RateProvider, RatesResponse> call;
+
+        private Race(Function<RateProvider, RatesResponse> call) {
+            this.call = call;
+        }
+
+        /**
+         * Call next provider whose circuit breaker allows it, skipping the others.
+         */
+        private void launchNext() {
+            while (!winner.isDone()) {
+                int index = next.getAndIncrement();
+                if (index >= sources.size()) {
+                    return;
+                }
+
+                Source source = sources.get(index);
+                if (source.getCircuitBreaker().allowRequest()) {
+                    call(source, call).whenComplete((response, error) -> {
+                        if (error == null) {
+                            winner.complete(response);
+                        } else if (!fail(error)) {
+                            launchNext();
+                        }
+                    });
+                    return;
+                }
+                fail(new IllegalStateException("Rate provider " + source.getName() + " is unavailable"));
+            }
+        }
+
+        /**
+         * @return {@code true} when it was the last provider and race is lost.
+         */
+        private boolean fail(Throwable error) {
+            if (failed.incrementAndGet() == sources.size()) {
+                winner.completeExceptionally(error);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Source {
+        private final String name;
+        private final RateProvider provider;
+        private final Duration timeout;
+        private final CircuitBreaker circuitBreaker;
+    }
+}
@@ -0,0 +1,101 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.RateDTO;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precomputed conversion rates between every pair of currencies of single day.
+ * Rates are derived from base rates: converting {@code from} to {@code to} costs {@code base->to / base->from}.
+ */
+public class CrossRateMatrix {
+
+    public static final MathContext PRECISION = MathContext.DECIMAL64;
+
+    private final String[] currencies;
+    private final Map<String, Integer> indexes;
+    private final BigDecimal[] rates;
+
+    private CrossRateMatrix(String[] currencies, BigDecimal[] baseRates) {
+        int size = currencies.length;
+
+        this.currencies = currencies;
+        this.indexes = new HashMap<>(size * 2);
+        this.rates = new BigDecimal[size * size];
+
+        for (int from = 0; from < size; from++) {
+            indexes.put(currencies[from], from);
+            for (int to = 0; to < size; to++) {
+                rates[from * size + to] = baseRates[to].divide(baseRates[from], PRECISION);
+            }
+        }
+    }
+
+    /**
+     * Build matrix from Rates of single day relative to given base currency.
+     * Rates without positive value are left out, so no cross rate is derived from them.
+     *
+     * @param base      currency in which Rates are expressed, added with rate 1 when missing.
+     * @param baseRates of single day.
+     * @return matrix of all cross rates, {@code null} when there are no usable Rates.
+     */
+    public static CrossRateMatrix of(String base, List<RateDTO> baseRates) {
+        List<RateDTO> usable = new ArrayList<>(baseRates.size());
+        for (RateDTO rate : baseRates) {
+            if (rate.getValue() != null && rate.getValue().signum() > 0) {
+                usable.add(rate);
+            }
+        }
+        if (usable.isEmpty()) {
+            return null;
+        }
+
+        boolean baseMissing = usable.stream().noneMatch(rate -> rate.getCurrencyName().equals(base));
+        int size = usable.size() + (baseMissing ? 1 : 0);
+
+        String[] currencies = new String[size];
+        BigDecimal[] values = new BigDecimal[size];
+
+        for (int i = 0; i < usable.size(); i++) {
+            currencies[i] = usable.get(i).getCurrencyName();
+            values[i] = usable.get(i).getValue();
+        }
+        if (baseMissing) {
+            currencies[size - 1] = base;
+            values[size - 1] = BigDecimal.ONE;
+        }
+
+        return new CrossRateMatrix(currencies, values);
+    }
+
+    /**
+     * @param currencyName to be found.
+     * @return index of currency or {@code -1} when matrix does not contain it.
+     */
+    public int indexOf(String currencyName) {
+        Integer index = indexes.get(currencyName);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @param from index of source currency.
+     * @param to   index of target currency.
+     * @return how many units of target currency one unit of source currency is worth.
+     */
+    public BigDecimal rate(int from, int to) {
+        return rates[from * currencies.length + to];
+    }
+
+    public String currencyAt(int index) {
+        return currencies[index];
+    }
+
+    public int size() {
+        return currencies.length;
+    }
+}
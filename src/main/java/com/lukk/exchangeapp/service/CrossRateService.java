@@ -0,0 +1,155 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.dto.ConversionDTO;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Derives conversion rates between any pair of stored currencies.
+ * Matrix of every day is computed once, when its Rates are saved or first requested, and kept for later lookups.
+ * Every save and purge bumps generation of matrices, matrix built from Rates read before is not kept,
+ * so lookup racing with save never caches stale matrix.
+ */
+@Service
+public class CrossRateService {
+
+    private final DataService dataService;
+    private final PropertyConfig propertyConfig;
+    private final Map<LocalDate, CrossRateMatrix> matrices;
+    private long generation;
+
+    public CrossRateService(DataService dataService, PropertyConfig propertyConfig) {
+        this.dataService = dataService;
+        this.propertyConfig = propertyConfig;
+
+        int maxDays = propertyConfig.getCrossRates().getMaxDays();
+        this.matrices = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LocalDate, CrossRateMatrix> eldest) {
+                return size() > maxDays;
+            }
+        };
+    }
+
+    /**
+     * Convert amount between two currencies using Rates of given day.
+     *
+     * @param day    of Rates used for conversion.
+     * @param from   source currency.
+     * @param to     target currency.
+     * @param amount in source currency.
+     * @return conversion details with rate and converted amount.
+     */
+    public ConversionDTO convert(LocalDate day, String from, String to, BigDecimal amount) {
+        String fromName = from.trim().toUpperCase(Locale.ROOT);
+        String toName = to.trim().toUpperCase(Locale.ROOT);
+
+        CrossRateMatrix matrix = getMatrix(day);
+        BigDecimal rate = matrix.rate(indexOf(matrix, fromName), indexOf(matrix, toName));
+
+        return new ConversionDTO(fromName, toName, day.toString(), amount, rate,
+            amount.multiply(rate, CrossRateMatrix.PRECISION));
+    }
+
+    /**
+     * Get rates of all currencies relative to given one.
+     *
+     * @param day  of Rates.
+     * @param from currency in which returned rates are expressed.
+     * @return how many units of each currency one unit of given currency is worth.
+     */
+    public Map<String, BigDecimal> getCrossRates(LocalDate day, String from) {
+        CrossRateMatrix matrix = getMatrix(day);
+        int fromIndex = indexOf(matrix, from.trim().toUpperCase(Locale.ROOT));
+
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        for (int to = 0; to < matrix.size(); to++) {
+            rates.put(matrix.currencyAt(to), matrix.rate(fromIndex, to));
+        }
+        return rates;
+    }
+
+    /**
+     * Rebuild matrix of day which Rates were just saved. Event may carry only some Rates of that day,
+     * so matrix is built from all its stored Rates.
+     *
+     * @param event with saved Rates.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatesSaved(RatesSavedEvent event) {
+        long built;
+        synchronized (matrices) {
+            matrices.remove(event.getDay());
+            built = ++generation;
+        }
+        build(event.getDay(), built);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatesPurged(RatesPurgedEvent event) {
+        synchronized (matrices) {
+            matrices.keySet().removeIf(day -> day.isBefore(event.getCutoff()));
+            generation++;
+        }
+    }
+
+    /**
+     * Get precomputed matrix of given day, building it from stored Rates when missing.
+     *
+     * @param day of Rates.
+     * @return matrix of all cross rates.
+     */
+    private CrossRateMatrix getMatrix(LocalDate day) {
+        CrossRateMatrix matrix;
+        long built;
+        synchronized (matrices) {
+            matrix = matrices.get(day);
+            built = generation;
+        }
+        if (matrix != null) {
+            return matrix;
+        }
+
+        matrix = build(day, built);
+        if (matrix == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No rates stored for " + day);
+        }
+        return matrix;
+    }
+
+    /**
+     * Build matrix from stored Rates of given day and cache it, unless Rates were saved or purged meanwhile.
+     *
+     * @param day   of Rates.
+     * @param built generation of matrices before Rates were read.
+     * @return matrix of all cross rates, {@code null} when there are no usable Rates.
+     */
+    private CrossRateMatrix build(LocalDate day, long built) {
+        CrossRateMatrix matrix = CrossRateMatrix.of(propertyConfig.getBase(), dataService.getRatesForDay(day));
+        if (matrix != null) {
+            synchronized (matrices) {
+                if (generation == built) {
+                    matrices.put(day, matrix);
+                }
+            }
+        }
+        return matrix;
+    }
+
+    private static int indexOf(CrossRateMatrix matrix, String currencyName) {
+        int index = matrix.indexOf(currencyName);
+        if (index < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown currency " + currencyName);
+        }
+        return index;
+    }
+}
@@ -1,22 +1,25 @@
 package com.lukk.exchangeapp.service;
 
-import com.google.gson.Gson;
 import com.lukk.exchangeapp.config.PropertyConfig;
 import com.lukk.exchangeapp.dto.RateDTO;
+import com.lukk.exchangeapp.dto.RatePage;
+import com.lukk.exchangeapp.dto.RateRow;
 import com.lukk.exchangeapp.dto.RatesResponse;
+import com.lukk.exchangeapp.dto.RetentionResult;
 import com.lukk.exchangeapp.entity.Rate;
 import com.lukk.exchangeapp.repository.DataRepository;
 import lombok.Data;
-import org.springframework.http.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,150 +28,307 @@ public class DataService {
 
     public static final String DATE_FORMAT = "yyyy-MM-dd";
 
-    private final RestTemplate rest;
+    private final RateProvider rateProvider;
     private final DataRepository repository;
+    private final RateCache rateCache;
+    private final RateSeriesStore rateSeriesStore;
+    private final RetentionService retentionService;
+    private final RateWriter rateWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RateMetrics rateMetrics;
     private final PropertyConfig propertyConfig;
 
     /**
-     * Every hour Rates older than year will be deleted from DB.
+     * Every hour Rates older than retention window (year by default) will be deleted from DB and cache,
+     * then {@link RatesPurgedEvent} is published.
      */
     @Scheduled(fixedDelay = 60 * 60 * 1000)
     public void clearOldRates() {
-        Calendar cal = new GregorianCalendar();
-        cal.add(Calendar.YEAR, -1);
-        Date yearAgo = cal.getTime();
+        RetentionResult result = retentionService.purge();
+        LocalDate cutoff = result.getCutoff();
 
-        List<Rate> toDelete = repository.findAllByDateBefore(yearAgo);
-        repository.deleteAll(toDelete);
+        rateCache.evictBefore(cutoff);
+        rateSeriesStore.removeBefore(cutoff);
+        eventPublisher.publishEvent(new RatesPurgedEvent(cutoff));
     }
 
     /**
-     * Get data from exchange service and if not already existing for given day then save it to DB.
+     * Get data from exchange service and save it to DB and cache.
+     * Rates are streamed from exchange service and written in batches while payload is parsed.
+     * Rates already stored for that day are updated, so downloading same day again is idempotent.
+     *
+     * @return number of saved Rates.
      */
-    public void downloadData() {
-        RatesResponse ratesResponse = getDataFromExchange();
-
-        if (!isAlreadyRegistered(ratesResponse)) {
-            saveRates(ratesResponse);
-        }
+    public int downloadData() {
+        DayWriter writer = new DayWriter();
+        rateProvider.streamLatest(propertyConfig.getWriter().getBatchSize(), writer);
+        return writer.finish();
     }
 
     /**
      * Get Rates for given date.
      * If there is single date then only for this date Rates will be retrieved.
      * If there is range of Dates then all Rates for that range will be retrieved.
+     * When series store is ready Rates are read from it, otherwise days already present in cache
+     * are not queried from DB.
      *
      * @param dateData for which Rates will be retrieved.
      * @return List of Rates.
-     * @throws ParseException when problem with date parsing.
      */
-    public List<RateDTO> getRates(String dateData) throws ParseException {
+    public List<RateDTO> getRates(String dateData) {
+        return getRates(dateData, null, null);
+    }
 
-        SimpleDateFormat formatter = new SimpleDateFormat(DATE_FORMAT);
-        List<Rate> rates;
+    /**
+     * Get Rates of given currencies for given date, expressed in given base currency.
+     * Currencies are pushed down to DB queries and cache keys, so only their Rates are read.
+     *
+     * @param dateData for which Rates will be retrieved.
+     * @param symbols  comma separated currency names, {@code null} for all currencies.
+     * @param base     currency of returned Rates, {@code null} for base of stored Rates.
+     * @return List of Rates.
+     */
+    public List<RateDTO> getRates(String dateData, String symbols, String base) {
+        DateRange dateRange = DateRange.parse(dateData).limit(propertyConfig.getRange().getMaxDays());
+        RateFilter filter = RateFilter.of(symbols, base, propertyConfig.getBase());
+        long started = System.nanoTime();
 
-        if (isRangeOfDates(dateData)) {
-            String[] dateRange = dateData.split(":");
+        List<RateDTO> rates = filter.apply(dateRange.isRange()
+            ? getRatesBetween(dateRange.getStart(), dateRange.getEnd(), filter.getQuerySymbols())
+            : getRatesForDay(dateRange.getStart(), filter.getQuerySymbols()));
 
-            Date startDate = formatter.parse(dateRange[0]);
-            Date endDate = formatter.parse(dateRange[1]);
+        rateMetrics.recordQuery(dateRange.isRange(), started, rates.size());
+        return rates;
+    }
 
-            rates = repository.findAllByDateAfterAndDateBefore(startDate, endDate);
+    /**
+     * Get single page of Rates for given date, ordered by date and currency name.
+     * Page is read from DB with keyset query continuing after given cursor,
+     * so its cost does not depend on position of page in range.
+     *
+     * @param dateData for which Rates will be retrieved.
+     * @param symbols  comma separated currency names, {@code null} for all currencies.
+     * @param base     currency of returned Rates, {@code null} for base of stored Rates.
+     * @param after    cursor returned with previous page, {@code null} for first page.
+     * @param limit    maximal number of Rates in page.
+     * @return page of Rates with cursor of next page.
+     */
+    public RatePage getRatesPage(String dateData, String symbols, String base, String after, int limit) {
+        DateRange dateRange = DateRange.parse(dateData);
+        RateFilter filter = RateFilter.of(symbols, base, propertyConfig.getBase());
+        LocalDate start = dateRange.isRange() ? dateRange.getStart() : dateRange.getStart().minusDays(1);
+        LocalDate end = dateRange.isRange() ? dateRange.getEnd() : dateRange.getEnd().plusDays(1);
+
+        LocalDate afterDate = null;
+        String afterCurrency = null;
+        if (after != null) {
+            String[] cursor = after.split(":");
+            try {
+                afterDate = Dates.parse(cursor[0]);
+                afterCurrency = cursor[1];
+            } catch (DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor " + after, e);
+            }
+        }
 
-        } else {
-            Date date = formatter.parse(dateData);
-            rates = repository.findAllByDate(date);
+        long started = System.nanoTime();
+        List<RateRow> rows = repository.findRows(start, end, filter.getSymbols(), afterDate, afterCurrency, limit);
+
+        Map<String, BigDecimal> baseValues = new HashMap<>();
+        if (filter.getBase() != null && !rows.isEmpty()) {
+            LocalDate firstDay = rows.get(0).getDate().minusDays(1);
+            LocalDate lastDay = rows.get(rows.size() - 1).getDate().plusDays(1);
+            convertRowsToDTO(repository.findRows(firstDay, lastDay, Set.of(filter.getBase()), null, null, 0))
+                .forEach(rate -> baseValues.put(rate.getDate(), rate.getValue()));
         }
+        List<RateDTO> rates = filter.apply(convertRowsToDTO(rows), baseValues);
+        rateMetrics.recordQuery(true, started, rates.size());
 
-        return convertToDTO(rates);
+        String next = null;
+        if (rows.size() == limit) {
+            RateRow last = rows.get(rows.size() - 1);
+            next = Dates.format(last.getDate()) + ":" + last.getCurrencyName();
+        }
+        return new RatePage(rates, next);
     }
 
     /**
-     * Check if given String is single date or range of dates.
+     * Get all Rates for single day, from series store or cache if possible, otherwise from DB as read-only projections.
      *
-     * @param dateData to be checked.
-     * @return {@code true} if it is range of dates, otherwise {@code false}.
+     * @param day for which Rates will be retrieved.
+     * @return List of Rates.
      */
-    private boolean isRangeOfDates(String dateData) {
-        return dateData.contains(":");
+    public List<RateDTO> getRatesForDay(LocalDate day) {
+        return getRatesForDay(day, null);
     }
 
     /**
-     * Send REST request to external exchange service for current rates.
+     * Get Rates of given currencies for single day. Series store returns all currencies.
      *
-     * @return Response with rate data.
+     * @param day        for which Rates will be retrieved.
+     * @param currencies of retrieved Rates, {@code null} for all currencies.
+     * @return List of Rates.
      */
-    private RatesResponse getDataFromExchange() {
-        Gson gson = new Gson();
-        HttpEntity<String> entity = buildEntity();
-        String url = buildUrl();
+    private List<RateDTO> getRatesForDay(LocalDate day, Set<String> currencies) {
+        if (rateSeriesStore.isReady()) {
+            return rateSeriesStore.get(day);
+        }
 
-        ResponseEntity<String> response = rest.exchange(url, HttpMethod.GET, entity, String.class);
+        List<RateDTO> cached = rateCache.get(day, currencies);
+        if (cached != null) {
+            return cached;
+        }
 
-        return gson.fromJson(response.getBody(), RatesResponse.class);
+        List<RateRow> rows = currencies == null
+            ? repository.findRowsByDate(day)
+            : repository.findRows(day.minusDays(1), day.plusDays(1), currencies, null, null, 0);
+        List<RateDTO> rates = convertRowsToDTO(rows);
+        rateCache.put(day, currencies, rates);
+        return rates;
     }
 
     /**
-     * Build Http Entity with only headers.
+     * Get Rates for all days between given ones (both exclusive).
+     * When series store is ready Rates are read from it. Otherwise only days with stored Rates are visited:
+     * cached ones are taken from cache and all missing ones are loaded with single read-only DB query and cached.
+     * Days without Rates are not cached.
      *
-     * @return Http Entity
+     * Series store returns all currencies.
+     *
+     * @param start      day before first retrieved day.
+     * @param end        day after last retrieved day.
+     * @param currencies of retrieved Rates, {@code null} for all currencies.
+     * @return List of Rates ordered by day.
      */
-    private HttpEntity<String> buildEntity() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
-        return new HttpEntity<>(headers);
+    private List<RateDTO> getRatesBetween(LocalDate start, LocalDate end, Set<String> currencies) {
+        if (rateSeriesStore.isReady()) {
+            return rateSeriesStore.getBetween(start, end);
+        }
+
+        Map<LocalDate, List<RateDTO>> ratesByDay = new TreeMap<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+
+        for (LocalDate day : repository.findStoredDays(start, end)) {
+            List<RateDTO> cached = rateCache.get(day, currencies);
+            if (cached != null) {
+                ratesByDay.put(day, cached);
+            } else {
+                if (firstMissing == null) {
+                    firstMissing = day;
+                }
+                lastMissing = day;
+            }
+        }
+
+        if (firstMissing != null) {
+            LocalDate loadStart = firstMissing.minusDays(1);
+            LocalDate loadEnd = lastMissing.plusDays(1);
+            List<RateRow> loaded = currencies == null
+                ? repository.findRowsByDateAfterAndDateBefore(loadStart, loadEnd)
+                : repository.findRows(loadStart, loadEnd, currencies, null, null, 0);
+            Map<LocalDate, List<RateRow>> loadedByDay = loaded.stream()
+                .collect(Collectors.groupingBy(RateRow::getDate));
+
+            loadedByDay.forEach((day, rows) -> {
+                if (!ratesByDay.containsKey(day)) {
+                    List<RateDTO> rates = convertRowsToDTO(rows);
+                    rateCache.put(day, currencies, rates);
+                    ratesByDay.put(day, rates);
+                }
+            });
+        }
+
+        List<RateDTO> rates = new ArrayList<>();
+        ratesByDay.values().forEach(rates::addAll);
+        return rates;
     }
 
     /**
-     * Build URL with parameters from properties.
+     * Checks if Rates with given date are already registered.
      *
-     * @return URL as String.
+     * @param date of Rates.
+     * @return {@code true} if already registered, otherwise {@code false}.
      */
-    private String buildUrl() {
-        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(propertyConfig.getUrl())
-            .queryParam("access_key", propertyConfig.getAccessKey())
-            .queryParam("symbols", propertyConfig.getSymbols())
-            .queryParam("base", propertyConfig.getBase());
-
-        return uriBuilder.toUriString();
+    public boolean isAlreadyRegistered(LocalDate date) {
+        return repository.findFirstByDateEquals(date) != null;
     }
 
     /**
-     * Checks if Rates with given date are already registered.
+     * Get the latest day for which Rates are stored.
      *
-     * @param ratesResponse with Rates date.
-     * @return {@code true} if already registered, otherwise {@code false}.
+     * @return the latest stored day, or {@code null} when no Rates are stored.
      */
-    private boolean isAlreadyRegistered(RatesResponse ratesResponse) {
-        return repository.findFirstByDateEquals(ratesResponse.getDate()) != null;
+    public LocalDate getLatestStoredDay() {
+        Rate latest = repository.findFirstByOrderByDateDesc();
+        return latest == null ? null : latest.getDate();
     }
 
     /**
-     * Save all rates from exchange response to DB.
+     * Save all rates from exchange response to DB, cache and series store, then publish {@link RatesSavedEvent}.
      *
      * @param ratesResponse with Rates data to be saved.
      */
-    private void saveRates(RatesResponse ratesResponse) {
-        List<Rate> rates = new ArrayList<>();
-        Map<String, BigDecimal> map = ratesResponse.getRates();
-
-        Date date = ratesResponse.getDate();
-        map.forEach((currencyName, value) -> rates.add(new Rate(currencyName, value, date)));
-
-        repository.saveAll(rates);
+    public void saveRates(RatesResponse ratesResponse) {
+        DayWriter writer = new DayWriter();
+        RatesParser.split(ratesResponse, propertyConfig.getWriter().getBatchSize(), writer);
+        writer.finish();
     }
 
     /**
-     * Converts Rate objects into DTO ones.
+     * Converts Rate projections into DTO ones. Dates of all Rates from same day share single cached String.
      *
-     * @param rates to be converted.
+     * @param rows to be converted.
      * @return List of RateDTO objects.
      */
-    private List<RateDTO> convertToDTO(List<Rate> rates) {
-        SimpleDateFormat formatter = new SimpleDateFormat(DATE_FORMAT);
+    List<RateDTO> convertRowsToDTO(List<RateRow> rows) {
+        List<RateDTO> converted = new ArrayList<>(rows.size());
+        for (RateRow row : rows) {
+            converted.add(new RateDTO(row.getCurrencyName(), row.getValue(), Dates.format(row.getDate())));
+        }
+        return converted;
+    }
+
+    /**
+     * Writes batches of Rates to DB and series store as they come. Once all Rates of day are written,
+     * they are cached and {@link RatesSavedEvent} is published, so only Rates of single day are held in memory.
+     */
+    private final class DayWriter implements Consumer<List<Rate>> {
+        private LocalDate day;
+        private List<RateDTO> dayRates = new ArrayList<>();
+        private int saved;
 
-        return rates.stream()
-            .map(rate -> new RateDTO(rate.getCurrencyName(), rate.getValue(), formatter.format(rate.getDate())))
-            .collect(Collectors.toList());
+        @Override
+        public void accept(List<Rate> batch) {
+            rateWriter.write(batch);
+            rateSeriesStore.putAll(batch);
+
+            for (Rate rate : batch) {
+                if (!rate.getDate().equals(day)) {
+                    finishDay();
+                    day = rate.getDate();
+                }
+                dayRates.add(new RateDTO(rate.getCurrencyName(), rate.getValue(), Dates.format(rate.getDate())));
+            }
+            saved += batch.size();
+        }
+
+        /**
+         * @return number of written Rates.
+         */
+        private int finish() {
+            finishDay();
+            return saved;
+        }
+
+        private void finishDay() {
+            if (dayRates.isEmpty()) {
+                return;
+            }
+            rateMetrics.recordSavedRows(dayRates.size());
+            rateCache.put(day, dayRates);
+            eventPublisher.publishEvent(new RatesSavedEvent(day, dayRates));
+            dayRates = new ArrayList<>();
+        }
     }
 }
@@ -0,0 +1,83 @@
+package com.lukk.exchangeapp.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Single date or range of dates requested by client.
+ * Range is given as {@code <starting date>:<ending date>} and both its ends are exclusive.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class DateRange {
+
+    private final LocalDate start;
+    private final LocalDate end;
+    private final boolean range;
+
+    /**
+     * Parse single date or range of dates.
+     *
+     * @param dateData in {@code yyyy-MM-dd} or {@code yyyy-MM-dd:yyyy-MM-dd} format.
+     * @return parsed date range, for single date both start and end are that date.
+     * @throws ResponseStatusException with {@code 400 Bad Request} status when date is missing or malformed,
+     *                                 or when range ends before it starts.
+     */
+    public static DateRange parse(String dateData) {
+        if (dateData == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "date is required");
+        }
+
+        try {
+            if (isRangeOfDates(dateData)) {
+                String[] dateRange = dateData.split(":", 2);
+
+                LocalDate startDate = Dates.parse(dateRange[0]);
+                LocalDate endDate = Dates.parse(dateRange[1]);
+                if (endDate.isBefore(startDate)) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Range " + dateData + " ends before it starts");
+                }
+
+                return new DateRange(startDate, endDate, true);
+            }
+
+            LocalDate date = Dates.parse(dateData);
+            return new DateRange(date, date, false);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid date " + dateData, e);
+        }
+    }
+
+    /**
+     * Check that range does not span more than given number of days.
+     *
+     * @param maxDays maximal number of days between ends of range.
+     * @return this date range.
+     * @throws ResponseStatusException with {@code 400 Bad Request} status when range is longer.
+     */
+    public DateRange limit(int maxDays) {
+        if (range && ChronoUnit.DAYS.between(start, end) > maxDays) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Range of dates cannot be longer than " + maxDays + " days");
+        }
+        return this;
+    }
+
+    /**
+     * Check if given String is single date or range of dates.
+     *
+     * @param dateData to be checked.
+     * @return {@code true} if it is range of dates, otherwise {@code false}.
+     */
+    private static boolean isRangeOfDates(String dateData) {
+        return dateData.contains(":");
+    }
+}
@@ -0,0 +1,62 @@
+package com.lukk.exchangeapp.service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import static com.lukk.exchangeapp.service.DataService.DATE_FORMAT;
+
+/**
+ * Parsing and formatting of calendar days in {@link DataService#DATE_FORMAT}.
+ * Formatted days are kept in small fixed cache indexed by epoch day, so all Rates of same day share one String
+ * and formatter runs once per day, not once per Rate. Cache entries are immutable, so racing writers
+ * only replace equal entries and no locking is needed.
+ */
+final class Dates {
+
+    static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern(DATE_FORMAT);
+
+    private static final int CACHE_SIZE = 1024;
+    private static final Entry[] CACHE = new Entry[CACHE_SIZE];
+
+    private Dates() {
+    }
+
+    /**
+     * Parses calendar day.
+     *
+     * @param text in {@code yyyy-MM-dd} format.
+     * @return parsed day.
+     * @throws java.time.format.DateTimeParseException when text is not valid day.
+     */
+    static LocalDate parse(String text) {
+        return LocalDate.parse(text, DAY_FORMATTER);
+    }
+
+    /**
+     * Formats calendar day, reusing String of previously formatted same day.
+     *
+     * @param day to be formatted.
+     * @return day in {@code yyyy-MM-dd} format.
+     */
+    static String format(LocalDate day) {
+        long epochDay = day.toEpochDay();
+        int index = (int) Math.floorMod(epochDay, (long) CACHE_SIZE);
+
+        Entry entry = CACHE[index];
+        if (entry == null || entry.epochDay != epochDay) {
+            entry = new Entry(epochDay, DAY_FORMATTER.format(day));
+            CACHE[index] = entry;
+        }
+        return entry.text;
+    }
+
+    private static final class Entry {
+        private final long epochDay;
+        private final String text;
+
+        private Entry(long epochDay, String text) {
+            this.epochDay = epochDay;
+            this.text = text;
+        }
+    }
+}
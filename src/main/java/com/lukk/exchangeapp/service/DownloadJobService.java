@@ -0,0 +1,116 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.dto.DownloadJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs downloads from exchange service as background jobs, so request threads are never blocked by upstream calls.
+ * Finished jobs are kept for status queries until number of them exceeds configured limit.
+ * Download requested while the same download is queued or running joins that job instead of starting new one,
+ * downloads are coalesced by {@link SingleFlight} like days of backfill.
+ */
+@Slf4j
+@Service
+public class DownloadJobService {
+
+    private final DataService dataService;
+    private final Executor downloadExecutor;
+    private final int maxFinishedJobs;
+    private final String latestKey;
+    private final Map<String, DownloadJob> jobs = new ConcurrentHashMap<>();
+    private final Queue<String> finishedJobs = new ConcurrentLinkedQueue<>();
+    private final SingleFlight<String, DownloadJob> downloads = new SingleFlight<>();
+    private DownloadJob current;
+    private CompletableFuture<DownloadJob> currentDownload;
+
+    public DownloadJobService(DataService dataService, Executor downloadExecutor, PropertyConfig propertyConfig) {
+        this.dataService = dataService;
+        this.downloadExecutor = downloadExecutor;
+        this.maxFinishedJobs = propertyConfig.getDownload().getMaxFinishedJobs();
+        this.latestKey = "latest|" + propertyConfig.getSymbols();
+    }
+
+    /**
+     * Queue new download job, or return the one already queued or running for the same symbols.
+     * Submissions are serialized, so download joined in flight is always the one of current job.
+     *
+     * @return queued or running job.
+     * @throws ResponseStatusException with 503 status when download queue is full.
+     */
+    public synchronized DownloadJob submit() {
+        DownloadJob job = new DownloadJob(UUID.randomUUID().toString());
+        CompletableFuture<DownloadJob> download = downloads.execute(latestKey, () -> {
+            jobs.put(job.getId(), job);
+            return CompletableFuture.supplyAsync(() -> run(job), downloadExecutor);
+        });
+        if (download == currentDownload) {
+            return current;
+        }
+
+        if (download.isCompletedExceptionally()) {
+            jobs.remove(job.getId());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Download queue is full",
+                download.handle((result, error) -> error).join());
+        }
+        current = job;
+        currentDownload = download;
+        return job;
+    }
+
+    public Optional<DownloadJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * @param job returned by {@link #submit()}.
+     * @return future completed with given job when it succeeds or fails.
+     */
+    public synchronized CompletableFuture<DownloadJob> completion(DownloadJob job) {
+        return job == current ? currentDownload : CompletableFuture.completedFuture(job);
+    }
+
+    private DownloadJob run(DownloadJob job) {
+        job.setStatus(DownloadJob.Status.RUNNING);
+
+        try {
+            job.setSavedRates(dataService.downloadData());
+            job.setStatus(DownloadJob.Status.SUCCEEDED);
+        } catch (RuntimeException e) {
+            log.warn("Download job {} failed", job.getId(), e);
+            job.setError(e.getMessage());
+            job.setStatus(DownloadJob.Status.FAILED);
+        }
+
+        job.setFinishedAt(Instant.now());
+        finish(job);
+        return job;
+    }
+
+    /**
+     * Remember finished job and forget the oldest finished ones above limit.
+     */
+    private void finish(DownloadJob job) {
+        finishedJobs.add(job.getId());
+
+        while (finishedJobs.size() > maxFinishedJobs) {
+            String oldest = finishedJobs.poll();
+            if (oldest != null) {
+                jobs.remove(oldest);
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.lukk.exchangeapp.service;
+
+import com.google.gson.Gson;
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.dto.RatesResponse;
+import com.lukk.exchangeapp.entity.Rate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.*;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Downloads Rates from external exchange service.
+ * Requests of already downloaded URL are conditional on validators of its last response
+ * and parsing is skipped when service answers {@code 304 Not Modified} or sends unchanged payload.
+ * Latest rates can be also streamed, then payload is parsed while it is received and is not cached.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "exchange", name = "provider", havingValue = "http", matchIfMissing = true)
+public class ExchangeClient implements RateProvider {
+
+    private static final Gson GSON = new Gson();
+    private static final HttpEntity<String> ENTITY = buildEntity(null);
+    private static final String STREAM_KEY = "stream:";
+
+    private final RestTemplate rest;
+    private final PropertyConfig propertyConfig;
+    private final RateMetrics rateMetrics;
+    private final UpstreamCache upstreamCache;
+
+    /**
+     * Get current rates from external exchange service.
+     *
+     * @return Response with rate data.
+     */
+    @Override
+    public RatesResponse getLatest() {
+        return getDataFromExchange(buildUrl(UriComponentsBuilder.fromHttpUrl(propertyConfig.getUrl())), false);
+    }
+
+    /**
+     * Stream current rates from external exchange service, Rates are passed to consumer while payload is received.
+     * Only validators of response are cached, so when service answers {@code 304 Not Modified}
+     * nothing is parsed nor passed to consumer. Upstream latency of streamed request includes consuming its Rates,
+     * so does parse time, as payload is parsed while it is received and consumed.
+     *
+     * @param batchSize maximal number of Rates in batch.
+     * @param batches   consumer of Rate batches.
+     * @return number of read Rates, 0 when rates did not change since previous call.
+     */
+    @Override
+    public int streamLatest(int batchSize, Consumer<List<Rate>> batches) {
+        String url = buildUrl(UriComponentsBuilder.fromHttpUrl(propertyConfig.getUrl()));
+        String key = STREAM_KEY + url;
+        UpstreamCache.Entry cached = upstreamCache.get(key);
+        HttpEntity<String> entity = cached == null ? ENTITY : buildEntity(cached);
+        RatesParser parser = new RatesParser(batchSize);
+
+        Integer parsed = rateMetrics.timeUpstream(false, () -> rest.execute(url, HttpMethod.GET,
+            request -> request.getHeaders().putAll(entity.getHeaders()),
+            response -> {
+                boolean unchanged = cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED;
+                rateMetrics.recordUpstreamCache(unchanged);
+                if (unchanged) {
+                    upstreamCache.put(key, toEntry(response.getHeaders(), null, null, cached));
+                    return 0;
+                }
+
+                Reader reader = new InputStreamReader(response.getBody(), StandardCharsets.UTF_8);
+                long started = System.nanoTime();
+                int count;
+                try {
+                    count = parser.parse(reader, batches);
+                } finally {
+                    rateMetrics.recordParse(started);
+                }
+                upstreamCache.put(key, toEntry(response.getHeaders(), null, null, null));
+                return count;
+            }));
+        return parsed == null ? 0 : parsed;
+    }
+
+    /**
+     * Get rates of given past day from external exchange service.
+     *
+     * @param day for which rates are requested.
+     * @return Response with rate data.
+     */
+    @Override
+    public RatesResponse getHistorical(LocalDate day) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(propertyConfig.getHistoryUrl())
+            .pathSegment(day.toString());
+
+        return getDataFromExchange(buildUrl(uriBuilder), true);
+    }
+
+    /**
+     * Send REST request to external exchange service, request and parsing are timed separately.
+     * Response of URL requested before is reused when service reports it as not modified or its payload is unchanged.
+     *
+     * @param url        with all parameters.
+     * @param historical {@code true} when requesting historical day.
+     * @return Response with rate data.
+     */
+    private RatesResponse getDataFromExchange(String url, boolean historical) {
+        UpstreamCache.Entry cached = upstreamCache.get(url);
+        HttpEntity<String> entity = cached == null ? ENTITY : buildEntity(cached);
+
+        ResponseEntity<String> response = rateMetrics.timeUpstream(historical,
+            () -> rest.exchange(url, HttpMethod.GET, entity, String.class));
+
+        boolean unchanged = cached != null && (response.getStatusCode() == HttpStatus.NOT_MODIFIED
+            || cached.getBody().equals(response.getBody()));
+        rateMetrics.recordUpstreamCache(unchanged);
+
+        if (unchanged) {
+            upstreamCache.put(url, toEntry(response.getHeaders(), cached.getBody(), cached.getResponse(), cached));
+            return cached.getResponse();
+        }
+
+        RatesResponse ratesResponse = rateMetrics.timeParse(() -> GSON.fromJson(response.getBody(), RatesResponse.class));
+        upstreamCache.put(url, toEntry(response.getHeaders(), response.getBody(), ratesResponse, null));
+        return ratesResponse;
+    }
+
+    /**
+     * Build cache entry from validators in given response headers, falling back to validators of previous entry.
+     */
+    private static UpstreamCache.Entry toEntry(HttpHeaders headers, String body,
+                                               RatesResponse ratesResponse, UpstreamCache.Entry previous) {
+        String etag = headers.getETag();
+        long lastModified = headers.getLastModified();
+
+        if (previous != null) {
+            etag = etag != null ? etag : previous.getEtag();
+            lastModified = lastModified >= 0 ? lastModified : previous.getLastModified();
+        }
+        return new UpstreamCache.Entry(etag, lastModified, body, ratesResponse, Instant.now());
+    }
+
+    /**
+     * Build Http Entity with only headers, conditional on validators of cached response when given.
+     *
+     * @param cached response of the same URL or {@code null}.
+     * @return Http Entity
+     */
+    private static HttpEntity<String> buildEntity(UpstreamCache.Entry cached) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+
+        if (cached != null && cached.getEtag() != null) {
+            headers.setIfNoneMatch(cached.getEtag());
+        }
+        if (cached != null && cached.getLastModified() >= 0) {
+            headers.setIfModifiedSince(cached.getLastModified());
+        }
+        return new HttpEntity<>(headers);
+    }
+
+    /**
+     * Add parameters from properties to given URL.
+     *
+     * @param uriBuilder with URL of requested resource.
+     * @return URL as String.
+     */
+    private String buildUrl(UriComponentsBuilder uriBuilder) {
+        return uriBuilder
+            .queryParam("access_key", propertyConfig.getAccessKey())
+            .queryParam("symbols", propertyConfig.getSymbols())
+            .queryParam("base", propertyConfig.getBase())
+            .toUriString();
+    }
+}
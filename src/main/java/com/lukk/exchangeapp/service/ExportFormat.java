@@ -0,0 +1,41 @@
+package com.lukk.exchangeapp.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Formats of exported Rates.
+ * {@link #CSV} has header line and one {@code date,currency,value} line per Rate.
+ * {@link #BINARY} is columnar: after {@code EXR1} magic and int scale of values it has one block per day,
+ * each with int epoch day, int number of Rates, currency names as modified UTF-8 and then values as longs unscaled
+ * by that scale, all written by {@link java.io.DataOutputStream}.
+ */
+@Getter
+@AllArgsConstructor
+public enum ExportFormat {
+
+    CSV("csv", MediaType.parseMediaType("text/csv")),
+    BINARY("bin", MediaType.APPLICATION_OCTET_STREAM);
+
+    public static final int BINARY_MAGIC = 0x45585231;
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    /**
+     * @param name of format, case insensitive.
+     * @return format of given name.
+     * @throws ResponseStatusException with {@code 400 Bad Request} status when format is unknown.
+     */
+    public static ExportFormat of(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown export format " + name);
+    }
+}
@@ -0,0 +1,201 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.FileSystemUtils;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.stream.Stream;
+
+/**
+ * Exports Rates of date range as CSV or binary columns.
+ * Rates of closed ranges, which end before today, do not change any more, so every such range covering whole
+ * calendar month or year is written to cache file once and later exports transfer that file with
+ * {@link FileChannel#transferTo}, without querying DB or encoding Rates. Other ranges are not cached, so number
+ * of cache files is bounded by number of stored months. Cache files of ranges with newly saved or purged days
+ * are deleted. Without configured {@code exchange.export.cache-dir} files are cached in temporary directory
+ * of this run, deleted on shutdown.
+ */
+@Slf4j
+@Service
+public class ExportService {
+
+    private static final String SEPARATOR = "_";
+
+    private final RateStreamService rateStreamService;
+    private final boolean cacheEnabled;
+    private final Path cacheDir;
+    private final boolean temporaryCacheDir;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ExportService(RateStreamService rateStreamService, PropertyConfig propertyConfig) throws IOException {
+        PropertyConfig.Export export = propertyConfig.getExport();
+        this.rateStreamService = rateStreamService;
+        this.cacheEnabled = export.isCacheEnabled();
+        this.temporaryCacheDir = cacheEnabled && export.getCacheDir().isBlank();
+        this.cacheDir = temporaryCacheDir
+            ? Files.createTempDirectory("exchange-export")
+            : Path.of(export.getCacheDir());
+    }
+
+    /**
+     * Write all Rates of given date range to output stream in given format,
+     * from cache file when range is closed whole month or year.
+     *
+     * @param dateRange    for which Rates will be written.
+     * @param format       of written Rates.
+     * @param outputStream to which Rates are written.
+     * @throws IOException when writing to output stream or cache file fails.
+     */
+    public void export(DateRange dateRange, ExportFormat format, OutputStream outputStream) throws IOException {
+        LocalDate first = dateRange.isRange() ? dateRange.getStart().plusDays(1) : dateRange.getStart();
+        LocalDate last = dateRange.isRange() ? dateRange.getEnd().minusDays(1) : dateRange.getEnd();
+
+        if (!cacheEnabled || !last.isBefore(LocalDate.now()) || !isWholePeriod(first, last)) {
+            rateStreamService.writeRates(dateRange, format, outputStream);
+            return;
+        }
+
+        Path file = cacheDir.resolve(first + SEPARATOR + last + "." + format.getExtension());
+        try {
+            if (!Files.exists(file)) {
+                materialize(dateRange, format, file);
+            }
+            transfer(file, outputStream);
+        } catch (NoSuchFileException e) {
+            log.debug("Export cache file {} evicted, writing from DB", file);
+            rateStreamService.writeRates(dateRange, format, outputStream);
+        }
+    }
+
+    /**
+     * Delete cache directory created for this run.
+     */
+    @PreDestroy
+    public void deleteTemporaryCacheDir() {
+        if (!temporaryCacheDir) {
+            return;
+        }
+        try {
+            FileSystemUtils.deleteRecursively(cacheDir);
+        } catch (IOException e) {
+            log.warn("Cannot delete export cache {}", cacheDir, e);
+        }
+    }
+
+    Path getCacheDir() {
+        return cacheDir;
+    }
+
+    /**
+     * Delete cache files of ranges containing saved day, once transaction which saved it commits.
+     *
+     * @param event with saved Rates.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatesSaved(RatesSavedEvent event) {
+        LocalDate day = event.getDay();
+        evict((first, last) -> !day.isBefore(first) && !day.isAfter(last));
+    }
+
+    /**
+     * Delete cache files of ranges containing purged days.
+     *
+     * @param event with retention cutoff.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatesPurged(RatesPurgedEvent event) {
+        evict((first, last) -> first.isBefore(event.getCutoff()));
+    }
+
+    /**
+     * Write Rates to temporary file moved to given cache file when complete, so readers never see partial file.
+     * File is dropped when cache was evicted meanwhile, as it could miss just saved Rates.
+     */
+    private void materialize(DateRange dateRange, ExportFormat format, Path file) throws IOException {
+        long generation = evictions.get();
+        Files.createDirectories(cacheDir);
+        Path temp = Files.createTempFile(cacheDir, file.getFileName().toString(), ".tmp");
+
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(temp)) {
+                rateStreamService.writeRates(dateRange, format, outputStream);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        if (evictions.get() != generation) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * @return {@code true} when days from first to last are whole calendar month or whole calendar year.
+     */
+    private static boolean isWholePeriod(LocalDate first, LocalDate last) {
+        if (first.getDayOfMonth() != 1) {
+            return false;
+        }
+        return last.equals(first.with(TemporalAdjusters.lastDayOfMonth()))
+            || (first.getDayOfYear() == 1 && last.equals(first.with(TemporalAdjusters.lastDayOfYear())));
+    }
+
+    private static void transfer(Path file, OutputStream outputStream) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+        outputStream.flush();
+    }
+
+    /**
+     * Delete cache files of ranges matching given predicate of their first and last day.
+     */
+    private void evict(BiPredicate<LocalDate, LocalDate> expired) {
+        if (!cacheEnabled || !Files.isDirectory(cacheDir)) {
+            return;
+        }
+        evictions.incrementAndGet();
+
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                int separator = name.indexOf(SEPARATOR);
+                int extension = name.indexOf('.');
+                if (separator < 0 || extension < separator || name.endsWith(".tmp")) {
+                    continue;
+                }
+
+                LocalDate first = LocalDate.parse(name.substring(0, separator));
+                LocalDate last = LocalDate.parse(name.substring(separator + 1, extension));
+                if (expired.test(first, last)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Cannot evict export cache in {}", cacheDir, e);
+        }
+    }
+}
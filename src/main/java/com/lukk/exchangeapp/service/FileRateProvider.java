@@ -0,0 +1,75 @@
+package com.lukk.exchangeapp.service;
+
+import com.google.gson.Gson;
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.dto.RatesResponse;
+import com.lukk.exchangeapp.entity.Rate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads Rates from JSON files in exchange service format, stored in directory set by {@code exchange.stub.dir}.
+ * Latest rates are read from {@code latest.json}, rates of past day from {@code <day>.json},
+ * or from {@code latest.json} with date of requested day when file of that day does not exist.
+ * Files are read and parsed on every call, so load tests exercise the same path as downloads from exchange service,
+ * streamed latest rates are parsed while file is read.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "exchange", name = "provider", havingValue = "file")
+public class FileRateProvider implements RateProvider {
+
+    static final String LATEST_FILE = "latest.json";
+
+    private static final Gson GSON = new Gson();
+
+    private final PropertyConfig propertyConfig;
+    private final RateMetrics rateMetrics;
+
+    @Override
+    public RatesResponse getLatest() {
+        return read(Path.of(propertyConfig.getStub().getDir(), LATEST_FILE));
+    }
+
+    @Override
+    public int streamLatest(int batchSize, Consumer<List<Rate>> batches) {
+        Path file = Path.of(propertyConfig.getStub().getDir(), LATEST_FILE);
+        try (Reader reader = Files.newBufferedReader(file)) {
+            return new RatesParser(batchSize).parse(reader, batches);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read stub file " + file, e);
+        }
+    }
+
+    @Override
+    public RatesResponse getHistorical(LocalDate day) {
+        Path dayFile = Path.of(propertyConfig.getStub().getDir(), day + ".json");
+        if (Files.exists(dayFile)) {
+            return read(dayFile);
+        }
+
+        RatesResponse ratesResponse = getLatest();
+        ratesResponse.setDate(day);
+        return ratesResponse;
+    }
+
+    private RatesResponse read(Path file) {
+        String body;
+        try {
+            body = Files.readString(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read stub file " + file, e);
+        }
+        return rateMetrics.timeParse(() -> GSON.fromJson(body, RatesResponse.class));
+    }
+}
@@ -0,0 +1,160 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.dto.DownloadJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Downloads latest Rates periodically on its own scheduler, by cron expression when configured,
+ * otherwise with fixed interval between runs. Every run is delayed by random jitter, so instances started together
+ * do not hit exchange service at the same moment. Failed runs are retried with exponential backoff,
+ * runs when latest stored day is already current are skipped without calling exchange service. On weekends,
+ * when exchange service publishes no new day, runs are skipped once download returned Rates of last business day.
+ * Downloads go through {@link DownloadJobService}, so a run joins download already started by {@code /download}
+ * instead of fetching the same Rates again.
+ */
+@Slf4j
+public class IngestionScheduler {
+
+    private final DataService dataService;
+    private final DownloadJobService downloadJobService;
+    private final TaskScheduler ingestionScheduler;
+    private final PropertyConfig.Ingestion config;
+    private final CronExpression cron;
+    private final Clock clock;
+
+    private volatile int failures;
+    private volatile LocalDate lastFetched;
+
+    public IngestionScheduler(DataService dataService, DownloadJobService downloadJobService,
+                              TaskScheduler ingestionScheduler, PropertyConfig.Ingestion config, Clock clock) {
+        this.dataService = dataService;
+        this.downloadJobService = downloadJobService;
+        this.ingestionScheduler = ingestionScheduler;
+        this.config = config;
+        this.cron = config.getCron().isBlank() ? null : CronExpression.parse(config.getCron());
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Instant first = clock.instant().plus(config.getInitialDelay());
+        log.info("Scheduled ingestion starts at {}", first);
+        ingestionScheduler.schedule(this::runAndReschedule, first);
+    }
+
+    /**
+     * Download latest Rates unless they are already stored, waiting until download job finishes.
+     *
+     * @return {@code true} when download was made.
+     */
+    boolean run() {
+        try {
+            LocalDate latest = dataService.getLatestStoredDay();
+            if (latest != null && isCurrent(latest, LocalDate.now(clock))) {
+                log.debug("Rates of {} already stored, skipping download", latest);
+                failures = 0;
+                return false;
+            }
+
+            DownloadJob job = downloadJobService.completion(downloadJobService.submit()).join();
+            if (job.getStatus() == DownloadJob.Status.FAILED) {
+                throw new IllegalStateException("Download job " + job.getId() + " failed: " + job.getError());
+            }
+            lastFetched = dataService.getLatestStoredDay();
+            log.info("Scheduled download saved {} rates, latest day is {}", job.getSavedRates(), lastFetched);
+            failures = 0;
+            return true;
+        } catch (RuntimeException e) {
+            failures++;
+            log.warn("Scheduled download failed {} time(s) in a row", failures, e);
+            return false;
+        }
+    }
+
+    /**
+     * Time of next run after given moment: next regular run, or earlier backoff retry after failure,
+     * delayed by random jitter.
+     *
+     * @param now moment of finished run.
+     * @return time of next run.
+     */
+    Instant nextRun(Instant now) {
+        Instant next = nextRegularRun(now);
+        if (failures > 0) {
+            Instant retry = now.plus(backoff(failures));
+            if (retry.isBefore(next)) {
+                next = retry;
+            }
+        }
+
+        long jitterMillis = config.getJitter().toMillis();
+        return jitterMillis > 0 ? next.plusMillis(ThreadLocalRandom.current().nextLong(jitterMillis + 1)) : next;
+    }
+
+    int getFailures() {
+        return failures;
+    }
+
+    private void runAndReschedule() {
+        try {
+            run();
+        } finally {
+            ingestionScheduler.schedule(this::runAndReschedule, nextRun(clock.instant()));
+        }
+    }
+
+    /**
+     * @param latest day of stored Rates.
+     * @param today  current day.
+     * @return {@code true} when Rates of today are stored, or when exchange service publishes none today
+     * and previous download already returned Rates of last business day.
+     */
+    private boolean isCurrent(LocalDate latest, LocalDate today) {
+        if (!latest.isBefore(today)) {
+            return true;
+        }
+        return latest.equals(lastFetched) && latest.equals(lastBusinessDay(today));
+    }
+
+    private static LocalDate lastBusinessDay(LocalDate day) {
+        switch (day.getDayOfWeek()) {
+            case SATURDAY:
+                return day.minusDays(1);
+            case SUNDAY:
+                return day.minusDays(2);
+            default:
+                return day;
+        }
+    }
+
+    private Instant nextRegularRun(Instant now) {
+        if (cron == null) {
+            return now.plus(config.getInterval());
+        }
+        ZonedDateTime next = cron.next(now.atZone(clock.getZone()));
+        return next == null ? now.plus(config.getInterval()) : next.toInstant();
+    }
+
+    /**
+     * Delay before retry, doubling with every failure up to configured maximum.
+     *
+     * @param failures number of failed runs in a row.
+     * @return delay before retry.
+     */
+    private Duration backoff(int failures) {
+        Duration backoff = config.getBackoff().multipliedBy(1L << Math.min(failures - 1, 20));
+        return backoff.compareTo(config.getMaxBackoff()) > 0 ? config.getMaxBackoff() : backoff;
+    }
+}
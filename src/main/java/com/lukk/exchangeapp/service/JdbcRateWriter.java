@@ -0,0 +1,37 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.entity.Rate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Upserts Rates directly with JDBC batch of H2 {@code MERGE} statements keyed by date and currency,
+ * bypassing persistence context, so concurrent writers of the same day never violate unique date and currency key.
+ * Stored Rate keeps its id, new ones take id from the sequence of {@link Rate} entity.
+ */
+@Component
+@RequiredArgsConstructor
+public class JdbcRateWriter implements RateWriter {
+
+    static final String UPSERT_SQL = "MERGE INTO rate (id, currency_name, value, date) KEY (date, currency_name) "
+        + "VALUES (COALESCE((SELECT id FROM rate WHERE date = ?1 AND currency_name = ?2), NEXT VALUE FOR rate_seq), "
+        + "?2, ?3, ?1)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PropertyConfig propertyConfig;
+
+    @Override
+    @Transactional
+    public void write(List<Rate> rates) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rates, propertyConfig.getWriter().getBatchSize(), (ps, rate) -> {
+            ps.setInt(1, Math.toIntExact(rate.getDate().toEpochDay()));
+            ps.setString(2, rate.getCurrencyName());
+            ps.setBigDecimal(3, rate.getValue());
+        });
+    }
+}
@@ -0,0 +1,182 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.dto.RateDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes Rates of every saved day to subscribed clients as Server-Sent Events.
+ * Subscribers are async requests without own threads, so idle ones cost only their connection.
+ * Every subscriber has bounded buffer of pending days drained on shared executor, subscriber which
+ * buffer is full is disconnected instead of slowing down others or growing memory. Sending is a blocking write,
+ * subscriber which single send takes longer than configured timeout is disconnected too, so stalled client
+ * cannot keep drain thread from other subscribers.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateBroadcaster {
+
+    static final String EVENT_NAME = "rates";
+    private static final long NOT_SENDING = Long.MIN_VALUE;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final Executor subscriptionExecutor;
+    private final PropertyConfig propertyConfig;
+    private final RateMetrics rateMetrics;
+
+    /**
+     * Subscribe to Rates of newly saved days.
+     *
+     * @param symbols comma separated currency names, {@code null} for all currencies.
+     * @return emitter of pushed Rates.
+     * @throws ResponseStatusException with {@code 503 Service Unavailable} status when subscriber limit is reached.
+     */
+    public SseEmitter subscribe(String symbols) {
+        SseEmitter emitter = new SseEmitter(propertyConfig.getSubscriptions().getTimeout().toMillis());
+        register(emitter, symbols);
+        return emitter;
+    }
+
+    /**
+     * Register given emitter as subscriber of Rates of given currencies.
+     *
+     * @param emitter to which Rates are sent.
+     * @param symbols comma separated currency names, {@code null} for all currencies.
+     */
+    void register(SseEmitter emitter, String symbols) {
+        PropertyConfig.Subscriptions config = propertyConfig.getSubscriptions();
+        if (subscribers.size() >= config.getMaxSubscribers()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many subscribers");
+        }
+
+        Subscriber subscriber = new Subscriber(emitter, RateFilter.of(symbols, null, propertyConfig.getBase()),
+            config.getBufferSize());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Queue saved Rates to every subscriber interested in any of them, once transaction which saved them commits.
+     * Rates are filtered once per distinct set of subscribed currencies.
+     *
+     * @param event with saved Rates.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatesSaved(RatesSavedEvent event) {
+        Map<Set<String>, List<RateDTO>> filtered = new HashMap<>();
+
+        for (Subscriber subscriber : subscribers) {
+            List<RateDTO> rates = filtered.computeIfAbsent(subscriber.filter.getSymbols(),
+                symbols -> subscriber.filter.apply(event.getRates()));
+            if (rates.isEmpty()) {
+                continue;
+            }
+
+            if (!subscriber.pending.offer(new RatesSavedEvent(event.getDay(), rates))) {
+                drop(subscriber);
+                continue;
+            }
+            if (subscriber.draining.compareAndSet(false, true)) {
+                subscriptionExecutor.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    /**
+     * Send all pending days to subscriber. Only one drain of given subscriber runs at a time.
+     *
+     * @param subscriber with pending days.
+     */
+    private void drain(Subscriber subscriber) {
+        do {
+            RatesSavedEvent update;
+            while ((update = subscriber.pending.poll()) != null) {
+                try {
+                    subscriber.sendStarted = System.nanoTime();
+                    subscriber.emitter.send(SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .id(update.getDay().toString())
+                        .data(update.getRates(), MediaType.APPLICATION_JSON));
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Subscriber disconnected: {}", e.getMessage());
+                    subscribers.remove(subscriber);
+                    subscriber.emitter.completeWithError(e);
+                    return;
+                } finally {
+                    subscriber.sendStarted = NOT_SENDING;
+                }
+            }
+            subscriber.draining.set(false);
+        } while (!subscriber.pending.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    /**
+     * Disconnect subscribers which current send takes longer than configured timeout.
+     * Completing emitter closes the connection, so blocked send fails and its drain thread is released.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void dropStalledSubscribers() {
+        long timeout = propertyConfig.getSubscriptions().getSendTimeout().toNanos();
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStarted;
+            if (started != NOT_SENDING && now - started > timeout) {
+                drop(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Disconnect subscriber which does not keep up with pushed Rates.
+     *
+     * @param subscriber with full buffer or stalled send.
+     */
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            log.info("Dropping slow subscriber with {} pending days", subscriber.pending.size());
+            rateMetrics.recordDroppedSubscriber();
+            subscriber.emitter.complete();
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final RateFilter filter;
+        private final BlockingQueue<RatesSavedEvent> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long sendStarted = NOT_SENDING;
+
+        private Subscriber(SseEmitter emitter, RateFilter filter, int bufferSize) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.pending = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
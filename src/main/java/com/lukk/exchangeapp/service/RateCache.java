@@ -0,0 +1,180 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.RateDTO;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory cache of Rates keyed by calendar day and requested currencies.
+ * Entry of all currencies of a day also answers requests for some of them.
+ * Least recently used entries are evicted when cache is full and entries expire after configured time to live.
+ * Keys are also indexed by day, so replacing or evicting days touches only entries of those days.
+ */
+public class RateCache {
+
+    private final int maxDays;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<Key, Entry> entries;
+    private final NavigableMap<LocalDate, Set<Key>> keysByDay = new TreeMap<>();
+
+    public RateCache(int maxDays, Duration ttl, Clock clock) {
+        this.maxDays = maxDays;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > RateCache.this.maxDays) {
+                    unindex(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get cached Rates for given day.
+     *
+     * @param day for which Rates are retrieved.
+     * @return List of Rates or {@code null} when day is not cached or its entry expired.
+     */
+    public synchronized List<RateDTO> get(LocalDate day) {
+        return getEntry(new Key(day, null));
+    }
+
+    /**
+     * Get cached Rates of given currencies for given day.
+     *
+     * @param day        for which Rates are retrieved.
+     * @param currencies of retrieved Rates, {@code null} for all currencies.
+     * @return List of Rates or {@code null} when neither these currencies nor all currencies of day are cached.
+     */
+    public synchronized List<RateDTO> get(LocalDate day, Set<String> currencies) {
+        List<RateDTO> rates = getEntry(new Key(day, currencies));
+        if (rates != null || currencies == null) {
+            return rates;
+        }
+
+        List<RateDTO> all = get(day);
+        if (all == null) {
+            return null;
+        }
+        return all.stream()
+            .filter(rate -> currencies.contains(rate.getCurrencyName()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Put all Rates of given day into cache, replacing previous entries of that day.
+     *
+     * @param day   of Rates.
+     * @param rates all Rates stored for that day.
+     */
+    public synchronized void put(LocalDate day, List<RateDTO> rates) {
+        Set<Key> keys = keysByDay.remove(day);
+        if (keys != null) {
+            keys.forEach(entries::remove);
+        }
+        putEntry(new Key(day, null), rates);
+    }
+
+    /**
+     * Put Rates of given currencies and day into cache.
+     *
+     * @param day        of Rates.
+     * @param currencies of Rates, {@code null} for all currencies.
+     * @param rates      stored for that day and currencies.
+     */
+    public synchronized void put(LocalDate day, Set<String> currencies, List<RateDTO> rates) {
+        if (currencies == null) {
+            put(day, rates);
+            return;
+        }
+        putEntry(new Key(day, Set.copyOf(currencies)), rates);
+    }
+
+    /**
+     * Remove all days older than given one.
+     *
+     * @param day first day which stays in cache.
+     */
+    public synchronized void evictBefore(LocalDate day) {
+        Map<LocalDate, Set<Key>> evicted = keysByDay.headMap(day);
+        for (Set<Key> keys : evicted.values()) {
+            keys.forEach(entries::remove);
+        }
+        evicted.clear();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        keysByDay.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private List<RateDTO> getEntry(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(clock.millis())) {
+            entries.remove(key);
+            unindex(key);
+            return null;
+        }
+        return entry.rates;
+    }
+
+    private void putEntry(Key key, List<RateDTO> rates) {
+        keysByDay.computeIfAbsent(key.day, day -> new HashSet<>()).add(key);
+        entries.put(key, new Entry(List.copyOf(rates), clock.millis() + ttlMillis));
+    }
+
+    private void unindex(Key key) {
+        Set<Key> keys = keysByDay.get(key.day);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                keysByDay.remove(key.day);
+            }
+        }
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class Key {
+        private final LocalDate day;
+        private final Set<String> currencies;
+    }
+
+    private static final class Entry {
+        private final List<RateDTO> rates;
+        private final long expiresAt;
+
+        private Entry(List<RateDTO> rates, long expiresAt) {
+            this.rates = rates;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.RateDTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static com.lukk.exchangeapp.service.RateSeriesStore.SCALE;
+
+/**
+ * Currencies requested by client and currency in which their Rates are expressed.
+ * Currencies are pushed down to DB queries and cache keys, rebasing is done on already read Rates
+ * using Rate of base currency of the same day.
+ */
+public class RateFilter {
+
+    public static final RateFilter ALL = new RateFilter(null, null);
+
+    private final Set<String> symbols;
+    private final String base;
+
+    private RateFilter(Set<String> symbols, String base) {
+        this.symbols = symbols;
+        this.base = base;
+    }
+
+    /**
+     * Create filter from request parameters.
+     *
+     * @param symbols    comma separated currency names, {@code null} or blank for all currencies.
+     * @param base       currency of returned Rates, {@code null} or blank for base of stored Rates.
+     * @param storedBase base currency of stored Rates.
+     * @return filter of given currencies.
+     */
+    public static RateFilter of(String symbols, String base, String storedBase) {
+        Set<String> symbolSet = null;
+        if (symbols != null && !symbols.isBlank()) {
+            symbolSet = new TreeSet<>();
+            Arrays.stream(symbols.split(","))
+                .map(String::trim)
+                .filter(symbol -> !symbol.isEmpty())
+                .map(String::toUpperCase)
+                .forEach(symbolSet::add);
+            symbolSet = Collections.unmodifiableSet(symbolSet);
+        }
+
+        String baseCurrency = base == null || base.isBlank() || base.equalsIgnoreCase(storedBase)
+            ? null
+            : base.trim().toUpperCase();
+
+        return symbolSet == null && baseCurrency == null ? ALL : new RateFilter(symbolSet, baseCurrency);
+    }
+
+    public boolean isAll() {
+        return symbols == null && base == null;
+    }
+
+    /**
+     * @return requested currencies, or {@code null} when all are requested.
+     */
+    public Set<String> getSymbols() {
+        return symbols;
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    /**
+     * @return currencies which have to be read to answer request: requested ones and base currency,
+     * or {@code null} when all have to be read.
+     */
+    public Set<String> getQuerySymbols() {
+        if (symbols == null || base == null || symbols.contains(base)) {
+            return symbols;
+        }
+        Set<String> querySymbols = new TreeSet<>(symbols);
+        querySymbols.add(base);
+        return Collections.unmodifiableSet(querySymbols);
+    }
+
+    /**
+     * Keep only requested currencies and rebase them using base currency Rates found among given ones.
+     *
+     * @param rates read for {@link #getQuerySymbols()}.
+     * @return filtered Rates in the same order, days without Rate of base currency are left out.
+     */
+    public List<RateDTO> apply(List<RateDTO> rates) {
+        if (isAll()) {
+            return rates;
+        }
+
+        Map<String, BigDecimal> baseValues = new HashMap<>();
+        if (base != null) {
+            rates.stream()
+                .filter(rate -> base.equals(rate.getCurrencyName()))
+                .forEach(rate -> baseValues.put(rate.getDate(), rate.getValue()));
+        }
+        return apply(rates, baseValues);
+    }
+
+    /**
+     * Keep only requested currencies and rebase them using given base currency Rates.
+     *
+     * @param rates      to be filtered.
+     * @param baseValues Rate of base currency by day.
+     * @return filtered Rates in the same order, days without Rate of base currency are left out.
+     */
+    public List<RateDTO> apply(List<RateDTO> rates, Map<String, BigDecimal> baseValues) {
+        List<RateDTO> filtered = new ArrayList<>(rates.size());
+
+        for (RateDTO rate : rates) {
+            if (symbols != null && !symbols.contains(rate.getCurrencyName())) {
+                continue;
+            }
+            if (base == null) {
+                filtered.add(rate);
+                continue;
+            }
+
+            BigDecimal baseValue = baseValues.get(rate.getDate());
+            if (baseValue != null && baseValue.signum() != 0) {
+                BigDecimal value = rate.getValue().divide(baseValue, SCALE, RoundingMode.HALF_UP);
+                filtered.add(new RateDTO(rate.getCurrencyName(), value, rate.getDate()));
+            }
+        }
+        return filtered;
+    }
+}
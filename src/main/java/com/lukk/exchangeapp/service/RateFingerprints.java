@@ -0,0 +1,148 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.RateDTO;
+import com.lukk.exchangeapp.dto.RateRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory fingerprints of stored Rates of every day, so validators of responses can be computed without DB query.
+ * Fingerprint of day is order independent hash of all its currencies and values, filled by
+ * {@link StoredRatesLoader} once application is started and updated by saved and purged Rates once their
+ * transaction commits.
+ */
+@Slf4j
+@Service
+public class RateFingerprints {
+
+    private final NavigableMap<LocalDate, Day> days = new ConcurrentSkipListMap<>();
+    private volatile boolean ready;
+
+    /**
+     * Add fingerprints of stored Rates read at startup.
+     *
+     * @param rows of stored Rates.
+     */
+    public void putRows(Collection<RateRow> rows) {
+        for (RateRow row : rows) {
+            put(row.getDate(), row.getCurrencyName(), row.getValue());
+        }
+    }
+
+    /**
+     * Start answering entity tags, once fingerprints of all stored Rates are added.
+     */
+    public void markReady() {
+        ready = true;
+        log.info("Fingerprinted rates of {} days", days.size());
+    }
+
+    /**
+     * @return {@code true} when fingerprints of all stored Rates are loaded.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatesSaved(RatesSavedEvent event) {
+        for (RateDTO rate : event.getRates()) {
+            put(event.getDay(), rate.getCurrencyName(), rate.getValue());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatesPurged(RatesPurgedEvent event) {
+        days.headMap(event.getCutoff()).clear();
+    }
+
+    /**
+     * Strong entity tag of Rates of all days of given range, as requested with given parameters.
+     * Only days with stored Rates are visited.
+     *
+     * @param dateRange  of requested Rates.
+     * @param parameters of request which change its response besides stored Rates.
+     * @return quoted entity tag or {@code null} when fingerprints are not loaded yet.
+     */
+    public String etag(DateRange dateRange, Object... parameters) {
+        if (!ready) {
+            return null;
+        }
+
+        long hash = mix(Objects.hash(parameters));
+        for (Map.Entry<LocalDate, Day> day : daysOf(dateRange).entrySet()) {
+            hash = mix(hash * 31 + day.getKey().toEpochDay());
+            hash = mix(hash * 31 + day.getValue().fingerprint);
+        }
+        return "\"" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * @param dateRange of requested Rates.
+     * @return {@code true} when fingerprints are loaded and Rates of every day of given range are stored.
+     */
+    public boolean isComplete(DateRange dateRange) {
+        if (!ready) {
+            return false;
+        }
+        long expected = ChronoUnit.DAYS.between(first(dateRange), last(dateRange)) + 1;
+        return daysOf(dateRange).size() == expected;
+    }
+
+    private NavigableMap<LocalDate, Day> daysOf(DateRange dateRange) {
+        LocalDate first = first(dateRange);
+        LocalDate last = last(dateRange);
+        return first.isAfter(last) ? new TreeMap<>() : days.subMap(first, true, last, true);
+    }
+
+    private static LocalDate first(DateRange dateRange) {
+        return dateRange.isRange() ? dateRange.getStart().plusDays(1) : dateRange.getStart();
+    }
+
+    private static LocalDate last(DateRange dateRange) {
+        return dateRange.isRange() ? dateRange.getEnd().minusDays(1) : dateRange.getEnd();
+    }
+
+    private void put(LocalDate day, String currencyName, BigDecimal value) {
+        long unscaled = value.setScale(RateSeriesStore.SCALE, RoundingMode.HALF_UP).unscaledValue().longValue();
+        long rateHash = mix(currencyName.hashCode() * 0x9E3779B97F4A7C15L ^ unscaled);
+
+        days.computeIfAbsent(day, key -> new Day()).put(currencyName, rateHash);
+    }
+
+    /**
+     * Finalizer of SplitMix64, spreads every input bit over whole hash.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * Hashes of Rates of single day. Concurrent writers of the same day are serialized on the day itself,
+     * readers see only the fingerprint.
+     */
+    private static final class Day {
+        private final Map<String, Long> rates = new HashMap<>();
+        private volatile long fingerprint;
+
+        private synchronized void put(String currencyName, long rateHash) {
+            Long previous = rates.put(currencyName, rateHash);
+            fingerprint = fingerprint + rateHash - (previous == null ? 0 : previous);
+        }
+    }
+}
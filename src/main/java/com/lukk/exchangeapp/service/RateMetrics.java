@@ -0,0 +1,167 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.RetentionResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters of download, query, retention and admission paths, exposed through actuator metrics and Prometheus endpoints.
+ */
+@Component
+public class RateMetrics {
+
+    private final Timer upstreamLatest;
+    private final Timer upstreamHistorical;
+    private final Timer parse;
+    private final Counter upstreamUnchanged;
+    private final Counter upstreamChanged;
+    private final DistributionSummary savedRows;
+    private final Timer querySingle;
+    private final Timer queryRange;
+    private final DistributionSummary resultSizeSingle;
+    private final DistributionSummary resultSizeRange;
+    private final Timer purgeDuration;
+    private final Counter purgedRows;
+    private final Counter droppedSubscribers;
+    private final Counter rateLimitedRequests;
+    private final Counter overloadedRequests;
+
+    public RateMetrics(MeterRegistry registry) {
+        upstreamLatest = upstreamTimer(registry, "latest");
+        upstreamHistorical = upstreamTimer(registry, "historical");
+        parse = Timer.builder("exchange.upstream.parse")
+            .description("Time of parsing exchange service response")
+            .register(registry);
+        upstreamUnchanged = upstreamCacheCounter(registry, "unchanged");
+        upstreamChanged = upstreamCacheCounter(registry, "changed");
+        savedRows = DistributionSummary.builder("exchange.download.rows")
+            .description("Rates saved per downloaded day")
+            .register(registry);
+        querySingle = queryTimer(registry, "single");
+        queryRange = queryTimer(registry, "range");
+        resultSizeSingle = resultSizeSummary(registry, "single");
+        resultSizeRange = resultSizeSummary(registry, "range");
+        purgeDuration = Timer.builder("exchange.retention.duration")
+            .description("Duration of retention purge run")
+            .register(registry);
+        purgedRows = Counter.builder("exchange.retention.deleted")
+            .description("Rates deleted by retention purge")
+            .register(registry);
+        droppedSubscribers = Counter.builder("exchange.subscriptions.dropped")
+            .description("Subscribers disconnected because they did not keep up with pushed Rates")
+            .register(registry);
+        rateLimitedRequests = rejectedCounter(registry, "rate-limit");
+        overloadedRequests = rejectedCounter(registry, "overload");
+    }
+
+    /**
+     * Time call to exchange service.
+     *
+     * @param historical {@code true} for historical day request, {@code false} for latest rates.
+     * @param call       to exchange service.
+     * @return result of call.
+     */
+    public <T> T timeUpstream(boolean historical, Supplier<T> call) {
+        return (historical ? upstreamHistorical : upstreamLatest).record(call);
+    }
+
+    public <T> T timeParse(Supplier<T> parsing) {
+        return parse.record(parsing);
+    }
+
+    /**
+     * Record parsing of streamed response, which cannot be passed as {@link Supplier} as it reads from connection.
+     *
+     * @param startedNanos {@link System#nanoTime()} when parsing started.
+     */
+    public void recordParse(long startedNanos) {
+        parse.record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record whether response of exchange service was reused from upstream cache.
+     *
+     * @param unchanged {@code true} when response was not modified since last request and was not parsed.
+     */
+    public void recordUpstreamCache(boolean unchanged) {
+        (unchanged ? upstreamUnchanged : upstreamChanged).increment();
+    }
+
+    public void recordSavedRows(int rows) {
+        savedRows.record(rows);
+    }
+
+    /**
+     * Record single query of Rates.
+     *
+     * @param range       {@code true} when range of dates was queried.
+     * @param startedNanos {@link System#nanoTime()} when query started.
+     * @param resultSize  number of returned Rates.
+     */
+    public void recordQuery(boolean range, long startedNanos, int resultSize) {
+        (range ? queryRange : querySingle).record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+        (range ? resultSizeRange : resultSizeSingle).record(resultSize);
+    }
+
+    public void recordPurge(RetentionResult result) {
+        purgeDuration.record(result.getDuration());
+        purgedRows.increment(result.getDeleted());
+    }
+
+    public void recordDroppedSubscriber() {
+        droppedSubscribers.increment();
+    }
+
+    /**
+     * Record request rejected by admission control.
+     *
+     * @param overload {@code true} when rejected because of too many concurrent requests,
+     *                 {@code false} when client exceeded its rate limit.
+     */
+    public void recordRejectedRequest(boolean overload) {
+        (overload ? overloadedRequests : rateLimitedRequests).increment();
+    }
+
+    private static Timer upstreamTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("exchange.upstream.latency")
+            .description("Latency of exchange service requests")
+            .tag("operation", operation)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    private static Counter upstreamCacheCounter(MeterRegistry registry, String result) {
+        return Counter.builder("exchange.upstream.cache")
+            .description("Responses of exchange service by whether their payload changed since last request")
+            .tag("result", result)
+            .register(registry);
+    }
+
+    private static Timer queryTimer(MeterRegistry registry, String type) {
+        return Timer.builder("exchange.query.latency")
+            .description("Latency of Rates queries")
+            .tag("type", type)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    private static DistributionSummary resultSizeSummary(MeterRegistry registry, String type) {
+        return DistributionSummary.builder("exchange.query.result.size")
+            .description("Number of Rates returned by query")
+            .tag("type", type)
+            .register(registry);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("exchange.requests.rejected")
+            .description("REST requests rejected by admission control")
+            .tag("reason", reason)
+            .register(registry);
+    }
+}
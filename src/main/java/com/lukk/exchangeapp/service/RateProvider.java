@@ -0,0 +1,44 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.RatesResponse;
+import com.lukk.exchangeapp.entity.Rate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Source of Rates downloaded into DB.
+ * Implementation is selected with {@code exchange.provider} property: {@code http} for external exchange service
+ * (default) or {@code file} for local stub files, which allows to load test whole pipeline offline.
+ */
+public interface RateProvider {
+
+    /**
+     * Get current rates.
+     *
+     * @return Response with rate data.
+     */
+    RatesResponse getLatest();
+
+    /**
+     * Get current rates as batches of Rates, passed to given consumer as they are read.
+     * Default implementation splits response of {@link #getLatest()}, providers which can read payload
+     * incrementally override it, so whole payload is never held in memory.
+     *
+     * @param batchSize maximal number of Rates in batch.
+     * @param batches   consumer of Rate batches.
+     * @return number of read Rates, 0 when rates did not change since previous call.
+     */
+    default int streamLatest(int batchSize, Consumer<List<Rate>> batches) {
+        return RatesParser.split(getLatest(), batchSize, batches);
+    }
+
+    /**
+     * Get rates of given past day.
+     *
+     * @param day for which rates are requested.
+     * @return Response with rate data.
+     */
+    RatesResponse getHistorical(LocalDate day);
+}
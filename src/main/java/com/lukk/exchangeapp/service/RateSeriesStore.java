@@ -0,0 +1,221 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.RateDTO;
+import com.lukk.exchangeapp.dto.RateRow;
+import com.lukk.exchangeapp.entity.Rate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compact in-memory time series of Rates.
+ * Every currency gets interned id and array of values indexed by day, values are kept as longs scaled
+ * to the same number of decimal places as in DB, so single stored Rate costs 8 bytes.
+ */
+public class RateSeriesStore {
+
+    public static final int SCALE = 5;
+
+    private static final long MISSING = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> currencyIds = new HashMap<>();
+    private final List<String> currencies = new ArrayList<>();
+    private final List<long[]> values = new ArrayList<>();
+
+    private long firstDay;
+    private int capacity;
+    private volatile boolean ready;
+
+    public RateSeriesStore(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return {@code true} when store is enabled and all Rates from DB are already loaded.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = enabled;
+    }
+
+    /**
+     * Add or replace given Rates, does nothing when store is disabled.
+     *
+     * @param rates to be stored.
+     */
+    public void putAll(Collection<Rate> rates) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Rate rate : rates) {
+                put(rate.getDate().toEpochDay(), rate.getCurrencyName(), rate.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add or replace Rates read as projections, does nothing when store is disabled.
+     *
+     * @param rows to be stored.
+     */
+    public void putRows(Collection<RateRow> rows) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (RateRow row : rows) {
+                put(row.getDate().toEpochDay(), row.getCurrencyName(), row.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get all Rates of given day.
+     *
+     * @param day for which Rates will be retrieved.
+     * @return List of Rates.
+     */
+    public List<RateDTO> get(LocalDate day) {
+        return getBetween(day.minusDays(1), day.plusDays(1));
+    }
+
+    /**
+     * Get Rates for all days between given ones (both exclusive).
+     *
+     * @param start day before first retrieved day.
+     * @param end   day after last retrieved day.
+     * @return List of Rates ordered by day.
+     */
+    public List<RateDTO> getBetween(LocalDate start, LocalDate end) {
+        List<RateDTO> rates = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            long from = Math.max(start.toEpochDay() + 1, firstDay);
+            long to = Math.min(end.toEpochDay() - 1, firstDay + capacity - 1);
+
+            for (long day = from; day <= to; day++) {
+                int index = (int) (day - firstDay);
+                String date = null;
+
+                for (int currencyId = 0; currencyId < currencies.size(); currencyId++) {
+                    long value = values.get(currencyId)[index];
+                    if (value == MISSING) {
+                        continue;
+                    }
+                    if (date == null) {
+                        date = Dates.format(LocalDate.ofEpochDay(day));
+                    }
+                    rates.add(new RateDTO(currencies.get(currencyId), BigDecimal.valueOf(value, SCALE), date));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return rates;
+    }
+
+    /**
+     * Remove all days older than given one.
+     *
+     * @param day first day which stays in store.
+     */
+    public void removeBefore(LocalDate day) {
+        lock.writeLock().lock();
+        try {
+            int dropped = (int) Math.min(capacity, day.toEpochDay() - firstDay);
+            if (dropped <= 0) {
+                return;
+            }
+
+            for (int currencyId = 0; currencyId < values.size(); currencyId++) {
+                long[] current = values.get(currencyId);
+                long[] shifted = newSeries(capacity);
+                System.arraycopy(current, dropped, shifted, 0, capacity - dropped);
+                values.set(currencyId, shifted);
+            }
+            firstDay += dropped;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Store single value, caller has to hold write lock.
+     */
+    private void put(long day, String currencyName, BigDecimal value) {
+        ensureCapacity(day);
+
+        Integer currencyId = currencyIds.get(currencyName);
+        if (currencyId == null) {
+            currencyId = currencies.size();
+            currencyIds.put(currencyName, currencyId);
+            currencies.add(currencyName);
+            values.add(newSeries(capacity));
+        }
+
+        values.get(currencyId)[(int) (day - firstDay)] = value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Grow all series so that given day fits in them, caller has to hold write lock.
+     */
+    private void ensureCapacity(long day) {
+        if (capacity == 0) {
+            firstDay = day;
+            resize(0, INITIAL_CAPACITY);
+        } else if (day < firstDay) {
+            int shift = (int) (firstDay - day);
+            resize(shift, capacity + shift);
+            firstDay = day;
+        } else if (day >= firstDay + capacity) {
+            int needed = (int) (day - firstDay + 1);
+            resize(0, Math.max(needed, capacity + capacity / 2));
+        }
+    }
+
+    private void resize(int offset, int newCapacity) {
+        for (int currencyId = 0; currencyId < values.size(); currencyId++) {
+            long[] current = values.get(currencyId);
+            long[] resized = newSeries(newCapacity);
+            System.arraycopy(current, 0, resized, offset, current.length);
+            values.set(currencyId, resized);
+        }
+        capacity = newCapacity;
+    }
+
+    private static long[] newSeries(int capacity) {
+        long[] series = new long[capacity];
+        Arrays.fill(series, MISSING);
+        return series;
+    }
+}
@@ -0,0 +1,172 @@
+package com.lukk.exchangeapp.service;
+
+import com.google.gson.Gson;
+import com.lukk.exchangeapp.dto.RateDTO;
+import com.lukk.exchangeapp.dto.RateRow;
+import com.lukk.exchangeapp.repository.DataRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes Rates as newline delimited JSON, CSV or binary columns directly while they are read from DB,
+ * so memory use does not depend on size of requested range.
+ * Rates are read as projections, so nothing is held by persistence context while streaming.
+ */
+@Service
+@RequiredArgsConstructor
+public class RateStreamService {
+
+    static final String CSV_HEADER = "date,currency,value\n";
+
+    private final DataRepository repository;
+    private final Gson gson = new Gson();
+
+    /**
+     * Write Rates of given date range to output stream, one JSON object per line.
+     * Unless all currencies are requested in stored base, Rates of single day are held in memory to be filtered.
+     *
+     * @param dateRange    for which Rates will be written.
+     * @param filter       of requested currencies and their base.
+     * @param outputStream to which Rates are written.
+     * @throws IOException when writing to output stream fails.
+     */
+    @Transactional(readOnly = true)
+    public void writeRates(DateRange dateRange, RateFilter filter, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        try (Stream<RateRow> rows = streamRows(dateRange)) {
+            Iterator<RateRow> iterator = rows.iterator();
+            List<RateDTO> day = new ArrayList<>();
+
+            while (iterator.hasNext()) {
+                RateRow row = iterator.next();
+                RateDTO rate = new RateDTO(row.getCurrencyName(), row.getValue(), Dates.format(row.getDate()));
+                if (filter.isAll()) {
+                    writeJson(rate, writer);
+                    continue;
+                }
+
+                if (!day.isEmpty() && !day.get(0).getDate().equals(rate.getDate())) {
+                    writeJson(filter.apply(day), writer);
+                    day.clear();
+                }
+                day.add(rate);
+            }
+            writeJson(filter.apply(day), writer);
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * Write all Rates of given date range to output stream in given export format.
+     *
+     * @param dateRange    for which Rates will be written.
+     * @param format       of written Rates.
+     * @param outputStream to which Rates are written.
+     * @throws IOException when writing to output stream fails.
+     */
+    @Transactional(readOnly = true)
+    public void writeRates(DateRange dateRange, ExportFormat format, OutputStream outputStream) throws IOException {
+        try (Stream<RateRow> rows = streamRows(dateRange)) {
+            if (format == ExportFormat.CSV) {
+                writeCsv(rows.iterator(), outputStream);
+            } else {
+                writeColumns(rows.iterator(), outputStream);
+            }
+        }
+    }
+
+    private void writeJson(List<RateDTO> rates, Writer writer) throws IOException {
+        for (RateDTO rate : rates) {
+            writeJson(rate, writer);
+        }
+    }
+
+    private void writeJson(RateDTO rate, Writer writer) throws IOException {
+        gson.toJson(rate, writer);
+        writer.write('\n');
+    }
+
+    private static void writeCsv(Iterator<RateRow> rows, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+
+        while (rows.hasNext()) {
+            RateRow row = rows.next();
+            writer.write(Dates.format(row.getDate()));
+            writer.write(',');
+            writer.write(row.getCurrencyName());
+            writer.write(',');
+            writer.write(row.getValue().toPlainString());
+            writer.write('\n');
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * Write Rates as binary columns, see {@link ExportFormat#BINARY}. Rows have to be ordered by date,
+     * only Rates of single day are held in memory.
+     */
+    private static void writeColumns(Iterator<RateRow> rows, OutputStream outputStream) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(outputStream));
+        data.writeInt(ExportFormat.BINARY_MAGIC);
+        data.writeInt(RateSeriesStore.SCALE);
+
+        List<RateRow> day = new ArrayList<>();
+        while (rows.hasNext()) {
+            RateRow row = rows.next();
+            if (!day.isEmpty() && !day.get(0).getDate().equals(row.getDate())) {
+                writeDay(data, day);
+                day.clear();
+            }
+            day.add(row);
+        }
+        if (!day.isEmpty()) {
+            writeDay(data, day);
+        }
+
+        data.flush();
+    }
+
+    private static void writeDay(DataOutputStream data, List<RateRow> day) throws IOException {
+        data.writeInt(Math.toIntExact(day.get(0).getDate().toEpochDay()));
+        data.writeInt(day.size());
+        for (RateRow row : day) {
+            data.writeUTF(row.getCurrencyName());
+        }
+        for (RateRow row : day) {
+            data.writeLong(row.getValue().setScale(RateSeriesStore.SCALE, RoundingMode.HALF_UP)
+                .unscaledValue().longValueExact());
+        }
+    }
+
+    /**
+     * Open forward-only stream of Rates for given date range.
+     *
+     * @param dateRange for which Rates will be read.
+     * @return Stream of Rates which has to be closed after use.
+     */
+    private Stream<RateRow> streamRows(DateRange dateRange) {
+        if (dateRange.isRange()) {
+            return repository.streamRowsByDateAfterAndDateBefore(dateRange.getStart(), dateRange.getEnd());
+        }
+        return repository.streamRowsByDate(dateRange.getStart());
+    }
+}
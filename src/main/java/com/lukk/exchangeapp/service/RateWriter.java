@@ -0,0 +1,19 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.entity.Rate;
+
+import java.util.List;
+
+/**
+ * Writes downloaded Rates to DB with upsert semantics: Rate with already stored date and currency replaces stored value,
+ * so writing same Rates again is idempotent.
+ */
+public interface RateWriter {
+
+    /**
+     * Insert or update all given Rates in batches.
+     *
+     * @param rates to be saved.
+     */
+    void write(List<Rate> rates);
+}
@@ -0,0 +1,179 @@
+package com.lukk.exchangeapp.service;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.lukk.exchangeapp.dto.RatesResponse;
+import com.lukk.exchangeapp.entity.Rate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reads payload of exchange service token by token and passes its Rates to consumer in batches of fixed size,
+ * so memory used by parsing does not depend on number of currencies or days in payload.
+ * Both single day payload ({@code "date"} with {@code "rates"} of currencies) and time series payload
+ * ({@code "rates"} of days, each with rates of currencies) are supported.
+ */
+public class RatesParser {
+
+    private final int batchSize;
+
+    public RatesParser(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Parse payload from given reader.
+     * Rates are passed to consumer only once service reported success and their date is known, Rates read before
+     * are held until then, so payload reporting error never leaves its Rates partially consumed.
+     * Payload without success flag is treated as successful once it is read whole.
+     *
+     * @param reader  of payload, not closed by parser.
+     * @param batches consumer of Rate batches, in order of payload.
+     * @return number of parsed Rates.
+     * @throws IOException        when payload cannot be read or is malformed.
+     * @throws JsonParseException when service reports error or payload misses date of its Rates.
+     */
+    public int parse(Reader reader, Consumer<List<Rate>> batches) throws IOException {
+        Batcher batcher = new Batcher(batches);
+
+        JsonReader json = new JsonReader(reader);
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "success":
+                    if (!json.nextBoolean()) {
+                        throw new JsonParseException("Exchange service returned error");
+                    }
+                    batcher.release();
+                    break;
+                case "date":
+                    batcher.setDate(Dates.parse(json.nextString()));
+                    break;
+                case "rates":
+                    json.beginObject();
+                    while (json.hasNext()) {
+                        String name = json.nextName();
+                        if (json.peek() == JsonToken.BEGIN_OBJECT) {
+                            readDay(json, Dates.parse(name), batcher);
+                        } else {
+                            batcher.add(new Rate(name, new BigDecimal(json.nextString()), null));
+                        }
+                    }
+                    json.endObject();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+
+        batcher.release();
+        if (batcher.hasUndated()) {
+            throw new JsonParseException("Exchange service returned rates without date");
+        }
+        return batcher.flush();
+    }
+
+    /**
+     * Split Rates of already parsed response into batches.
+     *
+     * @param response  with Rates of single day.
+     * @param batchSize maximal number of Rates in batch.
+     * @param batches   consumer of Rate batches.
+     * @return number of Rates in response.
+     */
+    public static int split(RatesResponse response, int batchSize, Consumer<List<Rate>> batches) {
+        Batcher batcher = new RatesParser(batchSize).new Batcher(batches);
+        batcher.release();
+        for (Map.Entry<String, BigDecimal> rate : response.getRates().entrySet()) {
+            batcher.add(new Rate(rate.getKey(), rate.getValue(), response.getDate()));
+        }
+        return batcher.flush();
+    }
+
+    private static void readDay(JsonReader json, LocalDate day, Batcher batcher) throws IOException {
+        json.beginObject();
+        while (json.hasNext()) {
+            String currencyName = json.nextName();
+            batcher.add(new Rate(currencyName, new BigDecimal(json.nextString()), day));
+        }
+        json.endObject();
+    }
+
+    /**
+     * Collects Rates and passes every full batch to consumer. Consumer owns passed batch.
+     * Until released, or while date of single day payload is unknown, Rates are held back.
+     */
+    private final class Batcher {
+        private final Consumer<List<Rate>> batches;
+        private final List<Rate> held = new ArrayList<>();
+        private List<Rate> batch = new ArrayList<>(batchSize);
+        private LocalDate date;
+        private boolean released;
+        private int count;
+
+        private Batcher(Consumer<List<Rate>> batches) {
+            this.batches = batches;
+        }
+
+        private void add(Rate rate) {
+            if (rate.getDate() == null) {
+                rate.setDate(date);
+            }
+            if (!released || rate.getDate() == null) {
+                held.add(rate);
+                return;
+            }
+
+            batch.add(rate);
+            count++;
+            if (batch.size() >= batchSize) {
+                batches.accept(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+
+        private void setDate(LocalDate date) {
+            this.date = date;
+            for (Rate rate : held) {
+                if (rate.getDate() == null) {
+                    rate.setDate(date);
+                }
+            }
+            if (released) {
+                addHeld();
+            }
+        }
+
+        private void release() {
+            released = true;
+            addHeld();
+        }
+
+        private void addHeld() {
+            List<Rate> rates = new ArrayList<>(held);
+            held.clear();
+            rates.forEach(this::add);
+        }
+
+        private boolean hasUndated() {
+            return !held.isEmpty();
+        }
+
+        private int flush() {
+            if (!batch.isEmpty()) {
+                batches.accept(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+            return count;
+        }
+    }
+}
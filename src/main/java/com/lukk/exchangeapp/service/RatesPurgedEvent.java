@@ -0,0 +1,19 @@
+package com.lukk.exchangeapp.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Published after Rates older than retention window were deleted from DB.
+ */
+@Getter
+@AllArgsConstructor
+public class RatesPurgedEvent {
+
+    /**
+     * First day which stays stored.
+     */
+    private final LocalDate cutoff;
+}
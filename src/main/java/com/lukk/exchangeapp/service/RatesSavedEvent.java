@@ -0,0 +1,19 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.RateDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published after Rates of single day were written to DB.
+ */
+@Getter
+@AllArgsConstructor
+public class RatesSavedEvent {
+
+    private final LocalDate day;
+    private final List<RateDTO> rates;
+}
@@ -0,0 +1,36 @@
+package com.lukk.exchangeapp.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces out requests to external service so that configured number of requests per second is not exceeded.
+ */
+public class RequestRateLimiter {
+
+    private final long intervalNanos;
+    private long nextSlot = System.nanoTime();
+
+    public RequestRateLimiter(double requestsPerSecond) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+    }
+
+    /**
+     * Block until next request is allowed.
+     *
+     * @throws InterruptedException when interrupted while waiting.
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextSlot);
+            nextSlot = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
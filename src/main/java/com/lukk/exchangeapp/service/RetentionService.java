@@ -0,0 +1,69 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.dto.RetentionResult;
+import com.lukk.exchangeapp.repository.DataRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RetentionService {
+
+    private final DataRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final PropertyConfig propertyConfig;
+    private final RateMetrics rateMetrics;
+
+    /**
+     * Delete all Rates older than configured retention window.
+     * Rates are deleted with bulk queries in chunks, each chunk in its own transaction,
+     * so expired entities are never loaded into persistence context.
+     *
+     * @return cutoff date with number of deleted Rates and time it took.
+     */
+    public RetentionResult purge() {
+        PropertyConfig.Retention retention = propertyConfig.getRetention();
+
+        LocalDate cutoff = LocalDate.now().minusDays(retention.getDays());
+
+        long started = System.nanoTime();
+        long deleted = 0;
+        int chunkDeleted;
+
+        do {
+            chunkDeleted = transactionTemplate.execute(status -> deleteChunk(cutoff, retention.getChunkSize()));
+            deleted += chunkDeleted;
+        } while (chunkDeleted == retention.getChunkSize());
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - started);
+        log.info("Deleted {} rates older than {} in {} ms", deleted, cutoff, duration.toMillis());
+
+        RetentionResult result = new RetentionResult(cutoff, deleted, duration);
+        rateMetrics.recordPurge(result);
+        return result;
+    }
+
+    /**
+     * Delete single chunk of Rates older than given date.
+     *
+     * @param cutoff    date before which Rates are deleted.
+     * @param chunkSize maximum number of Rates deleted.
+     * @return number of deleted Rates.
+     */
+    private int deleteChunk(LocalDate cutoff, int chunkSize) {
+        List<Long> ids = repository.findIdsByDateBefore(cutoff, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return repository.deleteByIds(ids);
+    }
+}
@@ -0,0 +1,52 @@
+package com.lukk.exchangeapp.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with equal keys: while call for a key is in flight, every other caller for that key
+ * gets the same future instead of starting new call. Calls for different keys never wait for each other.
+ *
+ * @param <K> type of call key.
+ * @param <V> type of call result.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Start call for given key or join the one already in flight.
+     *
+     * @param key  of call.
+     * @param call starting asynchronous call, invoked only when no call for the key is in flight.
+     * @return future shared by all callers of the key.
+     */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = calls.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            call.get().whenComplete((value, error) -> {
+                calls.remove(key, created);
+                if (error != null) {
+                    created.completeExceptionally(error);
+                } else {
+                    created.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            calls.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    public int inFlight() {
+        return calls.size();
+    }
+}
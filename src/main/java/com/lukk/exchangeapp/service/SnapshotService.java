@@ -0,0 +1,91 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Takes periodic online snapshots of file-backed DB into {@code exchange.storage.snapshot-dir},
+ * keeping only configured number of the newest ones. Snapshot is zip of DB files, unpacking it into
+ * {@code exchange.storage.dir} of stopped application restores the DB.
+ */
+@Slf4j
+public class SnapshotService {
+
+    static final String PREFIX = "exchange_db-";
+    static final String SUFFIX = ".zip";
+
+    private static final DateTimeFormatter NAME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+        .withZone(ZoneOffset.UTC);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskScheduler taskScheduler;
+    private final PropertyConfig.Storage config;
+    private final Clock clock;
+
+    public SnapshotService(JdbcTemplate jdbcTemplate, TaskScheduler taskScheduler,
+                           PropertyConfig.Storage config, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskScheduler = taskScheduler;
+        this.config = config;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        taskScheduler.scheduleWithFixedDelay(this::snapshot,
+            clock.instant().plus(config.getSnapshotInterval()), config.getSnapshotInterval());
+    }
+
+    /**
+     * Write snapshot of DB, then delete snapshots exceeding configured number.
+     *
+     * @return path of written snapshot.
+     */
+    public Path snapshot() {
+        Path dir = Path.of(config.getSnapshotDir());
+        Path snapshot = dir.resolve(PREFIX + NAME_FORMATTER.format(clock.instant()) + SUFFIX);
+        long started = System.nanoTime();
+
+        try {
+            Files.createDirectories(dir);
+            jdbcTemplate.execute("BACKUP TO '" + snapshot.toAbsolutePath() + "'");
+            removeOldSnapshots(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write snapshot " + snapshot, e);
+        }
+
+        log.info("Written snapshot {} in {} ms", snapshot, (System.nanoTime() - started) / 1_000_000);
+        return snapshot;
+    }
+
+    private void removeOldSnapshots(Path dir) throws IOException {
+        List<Path> snapshots;
+        try (Stream<Path> files = Files.list(dir)) {
+            snapshots = files
+                .filter(file -> file.getFileName().toString().startsWith(PREFIX))
+                .sorted(Comparator.comparing(Path::getFileName).reversed())
+                .collect(Collectors.toList());
+        }
+
+        for (Path old : snapshots.subList(Math.min(config.getSnapshots(), snapshots.size()), snapshots.size())) {
+            Files.delete(old);
+            log.debug("Deleted old snapshot {}", old);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.RateRow;
+import com.lukk.exchangeapp.repository.DataRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Reads all stored Rates once application is started and passes them in chunks to every in-memory view of them:
+ * enabled series store, fingerprints and enabled aggregates, so DB is scanned once however many views there are.
+ * Rates are read as projections, so nothing is held by persistence context while loading.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoredRatesLoader {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final DataRepository repository;
+    private final RateSeriesStore rateSeriesStore;
+    private final RateFingerprints rateFingerprints;
+    private final Optional<AggregateService> aggregateService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long loaded = 0;
+        List<RateRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (Stream<RateRow> rows = repository.streamRowsByOrderByDate()) {
+            Iterator<RateRow> iterator = rows.iterator();
+
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+
+                if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                    rateSeriesStore.putRows(chunk);
+                    rateFingerprints.putRows(chunk);
+                    aggregateService.ifPresent(aggregates -> aggregates.putRows(chunk));
+                    loaded += chunk.size();
+                    chunk.clear();
+                }
+            }
+        }
+
+        rateSeriesStore.markReady();
+        rateFingerprints.markReady();
+        log.info("Loaded {} stored rates", loaded);
+    }
+}
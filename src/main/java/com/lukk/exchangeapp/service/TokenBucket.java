@@ -0,0 +1,49 @@
+package com.lukk.exchangeapp.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as generic cell rate algorithm: whole state is single atomic
+ * theoretical arrival time, advanced by interval of every admitted request. Request is admitted while that time
+ * does not run more than burst intervals ahead of now, so idle bucket admits burst of requests at once.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong arrival = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(double requestsPerSecond, int burst) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        this.capacityNanos = intervalNanos * Math.max(burst, 1);
+    }
+
+    /**
+     * Take token if available.
+     *
+     * @param now current {@link System#nanoTime()}.
+     * @return 0 when token was taken, otherwise nanos until next token is available.
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @param now current {@link System#nanoTime()}.
+     * @return {@code true} when bucket is full, so dropping it loses no state.
+     */
+    public boolean isIdle(long now) {
+        return arrival.get() <= now;
+    }
+}
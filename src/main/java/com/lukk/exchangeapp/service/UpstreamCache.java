@@ -0,0 +1,76 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.RatesResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Last response of external exchange service per requested URL, together with its validators,
+ * so next request of the same URL can be conditional and unchanged payload does not need to be parsed again.
+ * Least recently used URLs are evicted when cache is full.
+ */
+public class UpstreamCache {
+
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+
+    public UpstreamCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > UpstreamCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @param url of request.
+     * @return last response of given URL or {@code null} when it is not cached.
+     */
+    public synchronized Entry get(String url) {
+        return entries.get(url);
+    }
+
+    public synchronized void put(String url, Entry entry) {
+        entries.put(url, entry);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Entry {
+
+        /**
+         * {@code ETag} header of response or {@code null} when service did not send it.
+         */
+        private final String etag;
+
+        /**
+         * {@code Last-Modified} header of response in epoch millis or -1 when service did not send it.
+         */
+        private final long lastModified;
+
+        /**
+         * Payload and its parsed response, both {@code null} for streamed responses.
+         */
+        private final String body;
+        private final RatesResponse response;
+
+        /**
+         * When response was last received or confirmed as unchanged.
+         */
+        private final Instant fetchedAt;
+    }
+}
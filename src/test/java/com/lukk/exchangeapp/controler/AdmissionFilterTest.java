@@ -0,0 +1,183 @@
+package com.lukk.exchangeapp.controler;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.service.RateMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdmissionFilterTest {
+
+    private PropertyConfig propertyConfig;
+
+    @BeforeEach
+    public void setup() {
+        propertyConfig = new PropertyConfig();
+        propertyConfig.getLimits().getRange().setRequestsPerSecond(1);
+        propertyConfig.getLimits().getRange().setBurst(1);
+        propertyConfig.getLimits().setApiKeys(Set.of("client", "other"));
+    }
+
+    @Test
+    void doFilter_whenRateLimitExceeded() throws ServletException, IOException {
+        //GIVEN
+        AdmissionFilter admissionFilter = filter();
+        admissionFilter.doFilter(request("2021-09-01:2021-09-08", "client"), new MockHttpServletResponse(),
+            new MockFilterChain());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //WHEN
+        admissionFilter.doFilter(request("2021-09-01:2021-09-08", "client"), response, new MockFilterChain());
+
+        //THEN
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void doFilter_whenOtherClientOrEndpoint() throws ServletException, IOException {
+        //GIVEN
+        AdmissionFilter admissionFilter = filter();
+        admissionFilter.doFilter(request("2021-09-01:2021-09-08", "client"), new MockHttpServletResponse(),
+            new MockFilterChain());
+        MockHttpServletResponse otherClient = new MockHttpServletResponse();
+        MockHttpServletResponse singleDay = new MockHttpServletResponse();
+
+        //WHEN
+        admissionFilter.doFilter(request("2021-09-01:2021-09-08", "other"), otherClient, new MockFilterChain());
+        admissionFilter.doFilter(request("2021-09-05", "client"), singleDay, new MockFilterChain());
+
+        //THEN
+        assertEquals(HttpStatus.OK.value(), otherClient.getStatus());
+        assertEquals(HttpStatus.OK.value(), singleDay.getStatus());
+    }
+
+    @Test
+    void doFilter_whenTooManyConcurrentRequests() throws ServletException, IOException {
+        //GIVEN
+        propertyConfig.getLimits().setMaxConcurrentRequests(1);
+        AdmissionFilter admissionFilter = filter();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain nested = (servletRequest, servletResponse) ->
+            admissionFilter.doFilter(request("2021-09-05", "other"), response, new MockFilterChain());
+
+        //WHEN
+        admissionFilter.doFilter(request("2021-09-05", "client"), new MockHttpServletResponse(), nested);
+
+        //THEN
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void doFilter_whenApiKeyUnknown() throws ServletException, IOException {
+        //GIVEN
+        AdmissionFilter admissionFilter = filter();
+        admissionFilter.doFilter(request("2021-09-01:2021-09-08", "unknown"), new MockHttpServletResponse(),
+            new MockFilterChain());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //WHEN
+        admissionFilter.doFilter(request("2021-09-01:2021-09-08", "another"), response, new MockFilterChain());
+
+        //THEN
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+    }
+
+    @Test
+    void doFilter_whenMaxClientsReached() throws ServletException, IOException {
+        //GIVEN
+        propertyConfig.getLimits().setMaxClients(1);
+        AdmissionFilter admissionFilter = filter();
+        admissionFilter.doFilter(request("2021-09-01:2021-09-08", "client"), new MockHttpServletResponse(),
+            new MockFilterChain());
+        MockHttpServletResponse otherClient = new MockHttpServletResponse();
+        MockHttpServletResponse otherAddress = new MockHttpServletResponse();
+        MockHttpServletRequest otherAddressRequest = request("2021-09-01:2021-09-08", "unknown");
+        otherAddressRequest.setRemoteAddr("10.0.0.2");
+
+        //WHEN
+        admissionFilter.doFilter(request("2021-09-01:2021-09-08", "other"), otherClient, new MockFilterChain());
+        admissionFilter.doFilter(otherAddressRequest, otherAddress, new MockFilterChain());
+
+        //THEN
+        assertEquals(HttpStatus.OK.value(), otherClient.getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), otherAddress.getStatus());
+    }
+
+    @Test
+    void doFilter_whenAsync() throws ServletException, IOException {
+        //GIVEN
+        AdmissionFilter admissionFilter = filter();
+        MockHttpServletRequest request = request("2021-09-01:2021-09-08", "client");
+        request.setAsyncSupported(true);
+        FilterChain async = (servletRequest, servletResponse) -> servletRequest.startAsync();
+
+        //WHEN
+        admissionFilter.doFilter(request, new MockHttpServletResponse(), async);
+
+        //THEN
+        assertEquals(1, admissionFilter.getInFlight());
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertEquals(0, admissionFilter.getInFlight());
+    }
+
+    @Test
+    void doFilter_whenSubscriptionsOverConcurrencyLimit() throws ServletException, IOException {
+        //GIVEN
+        propertyConfig.getLimits().setMaxConcurrentRequests(1);
+        AdmissionFilter admissionFilter = filter();
+        FilterChain async = (servletRequest, servletResponse) -> servletRequest.startAsync();
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest subscription = new MockHttpServletRequest("GET", "/subscribe");
+            subscription.setAsyncSupported(true);
+            admissionFilter.doFilter(subscription, new MockHttpServletResponse(), async);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //WHEN
+        admissionFilter.doFilter(request("2021-09-05", "client"), response, new MockFilterChain());
+
+        //THEN
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(0, admissionFilter.getInFlight());
+    }
+
+    @Test
+    void classify() {
+        //GIVEN
+        MockHttpServletRequest download = new MockHttpServletRequest("GET", "/download");
+        MockHttpServletRequest export = new MockHttpServletRequest("GET", "/export");
+
+        //WHEN
+        //THEN
+        assertEquals(AdmissionFilter.Endpoint.UPSTREAM, AdmissionFilter.classify(download));
+        assertEquals(AdmissionFilter.Endpoint.RANGE, AdmissionFilter.classify(export));
+        assertEquals(AdmissionFilter.Endpoint.RANGE, AdmissionFilter.classify(request("2021-09-01:2021-09-08", "c")));
+        assertEquals(AdmissionFilter.Endpoint.READ, AdmissionFilter.classify(request("2021-09-05", "c")));
+    }
+
+    private AdmissionFilter filter() {
+        return new AdmissionFilter(propertyConfig, new RateMetrics(new SimpleMeterRegistry()));
+    }
+
+    private static MockHttpServletRequest request(String date, String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/presentData");
+        request.setParameter("date", date);
+        request.addHeader("X-API-Key", apiKey);
+        return request;
+    }
+}
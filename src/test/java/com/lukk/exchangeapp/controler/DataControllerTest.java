@@ -1,34 +1,75 @@
 package com.lukk.exchangeapp.controler;
 
 import com.google.gson.Gson;
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.dto.BackfillJob;
+import com.lukk.exchangeapp.dto.BackfillResult;
+import com.lukk.exchangeapp.dto.DownloadJob;
 import com.lukk.exchangeapp.dto.RateDTO;
+import com.lukk.exchangeapp.dto.RatePage;
+import com.lukk.exchangeapp.service.BackfillService;
 import com.lukk.exchangeapp.service.DataService;
+import com.lukk.exchangeapp.service.DownloadJobService;
+import com.lukk.exchangeapp.service.ExportFormat;
+import com.lukk.exchangeapp.service.ExportService;
+import com.lukk.exchangeapp.service.RateFilter;
+import com.lukk.exchangeapp.service.RateFingerprints;
+import com.lukk.exchangeapp.service.RateStreamService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
-import static com.lukk.exchangeapp.service.DataService.DATE_FORMAT;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 
 @SpringBootTest
+@ActiveProfiles({"test"})
 class DataControllerTest {
 
     @Mock
     DataService dataService;
 
+    @Mock
+    BackfillService backfillService;
+
+    @Mock
+    RateStreamService rateStreamService;
+
+    @Mock
+    DownloadJobService downloadJobService;
+
+    @Mock
+    ExportService exportService;
+
+    @Mock
+    RateFingerprints rateFingerprints;
+
+    @Spy
+    PropertyConfig propertyConfig = new PropertyConfig();
+
     @InjectMocks
     DataController dataController;
 
@@ -42,35 +83,282 @@ class DataControllerTest {
     @Test
     void download() throws Exception {
         //GIVEN
-        doNothing().when(dataService).downloadData();
+        doReturn(new DownloadJob("jobId")).when(downloadJobService).submit();
 
         //WHEN
         this.mockMvc.perform(get("/download"))
 
             //THEN
-            .andExpect(MockMvcResultMatchers.status().isAccepted());
+            .andExpect(MockMvcResultMatchers.status().isAccepted())
+            .andExpect(MockMvcResultMatchers.header().string("Location", "/download/jobId"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.status").value("QUEUED"));
+    }
 
+    @Test
+    void downloadStatus() throws Exception {
+        //GIVEN
+        DownloadJob job = new DownloadJob("jobId");
+        job.setStatus(DownloadJob.Status.SUCCEEDED);
+        job.setSavedRates(3);
+        doReturn(Optional.of(job)).when(downloadJobService).getJob("jobId");
 
+        //WHEN
+        this.mockMvc.perform(get("/download/jobId"))
+
+            //THEN
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.status").value("SUCCEEDED"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.savedRates").value(3));
+    }
+
+    @Test
+    void downloadStatus_whenUnknownJob() throws Exception {
+        //GIVEN
+        doReturn(Optional.empty()).when(downloadJobService).getJob("unknown");
+
+        //WHEN
+        this.mockMvc.perform(get("/download/unknown"))
+
+            //THEN
+            .andExpect(MockMvcResultMatchers.status().isNotFound());
     }
 
     @Test
     void presentData() throws Exception {
         //GIVEN
         Gson gson = new Gson();
-        SimpleDateFormat formatter = new SimpleDateFormat(DATE_FORMAT);
-        Date date = new Date();
-        List<RateDTO> rates = List.of(new RateDTO("USD", BigDecimal.ONE, formatter.format(date)));
+        String date = LocalDate.now().toString();
+        List<RateDTO> rates = List.of(new RateDTO("USD", BigDecimal.ONE, date));
 
-        doReturn(rates).when(dataService).getRates(formatter.format(date));
+        doReturn(rates).when(dataService).getRates(date, null, null);
 
         ResultMatcher resultMatcher = MockMvcResultMatchers.content().string(gson.toJson(rates));
 
         //WHEN
-        this.mockMvc.perform(get("/presentData").param("date", formatter.format(date)))
+        this.mockMvc.perform(get("/presentData").param("date", date))
 
             //THEN
             .andExpect(MockMvcResultMatchers.status().isOk())
             .andExpect(resultMatcher);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void presentData_whenPastDay() throws Exception {
+        //GIVEN
+        List<RateDTO> rates = List.of(new RateDTO("USD", BigDecimal.ONE, "2021-09-05"));
+        doReturn(rates).when(dataService).getRates("2021-09-05", null, null);
+        doReturn("\"v1\"").when(rateFingerprints).etag(any(), any());
+        doReturn(true).when(rateFingerprints).isComplete(any());
+
+        //WHEN
+        this.mockMvc.perform(get("/presentData").param("date", "2021-09-05"))
+
+            //THEN
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"v1\""))
+            .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL, "max-age=2592000, public"));
+    }
+
+    @Test
+    void presentData_whenPastRangeIncomplete() throws Exception {
+        //GIVEN
+        List<RateDTO> rates = List.of(new RateDTO("USD", BigDecimal.ONE, "2021-09-05"));
+        doReturn(rates).when(dataService).getRates("2021-09-01:2021-09-08", null, null);
+        doReturn("\"v1\"").when(rateFingerprints).etag(any(), any());
+        doReturn(false).when(rateFingerprints).isComplete(any());
+
+        //WHEN
+        this.mockMvc.perform(get("/presentData").param("date", "2021-09-01:2021-09-08"))
+
+            //THEN
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.header()
+                .string(HttpHeaders.CACHE_CONTROL, "max-age=60, must-revalidate, public"));
+    }
+
+    @Test
+    void presentData_whenNotModified() throws Exception {
+        //GIVEN
+        doReturn("\"v1\"").when(rateFingerprints).etag(any(), any());
+
+        //WHEN
+        this.mockMvc.perform(get("/presentData")
+                .param("date", "2021-09-05")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+
+            //THEN
+            .andExpect(MockMvcResultMatchers.status().isNotModified())
+            .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"v1\""));
+        verifyNoInteractions(dataService);
+    }
+
+    @Test
+    void presentData_whenSymbolsAndBase() throws Exception {
+        //GIVEN
+        List<RateDTO> rates = List.of(new RateDTO("GBP", new BigDecimal("0.85000"), "2021-09-05"));
+        doReturn(rates).when(dataService).getRates("2021-09-05", "GBP", "USD");
+
+        //WHEN
+        this.mockMvc.perform(get("/presentData")
+                .param("date", "2021-09-05")
+                .param("symbols", "GBP")
+                .param("base", "USD"))
+
+            //THEN
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].currencyName").value("GBP"));
+    }
+
+    @Test
+    void presentData_whenPaged() throws Exception {
+        //GIVEN
+        RatePage page = new RatePage(List.of(new RateDTO("USD", BigDecimal.ONE, "2021-09-02")), "2021-09-02:USD");
+        doReturn(page).when(dataService).getRatesPage("2021-09-01:2021-09-08", null, null, null, 1);
+
+        //WHEN
+        this.mockMvc.perform(get("/presentData")
+                .param("date", "2021-09-01:2021-09-08")
+                .param("limit", "1"))
+
+            //THEN
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.rates[0].currencyName").value("USD"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.next").value("2021-09-02:USD"));
+    }
+
+    @Test
+    void presentData_whenLimitInvalid() throws Exception {
+        //WHEN
+        this.mockMvc.perform(get("/presentData")
+                .param("date", "2021-09-01:2021-09-08")
+                .param("limit", "0"))
+
+            //THEN
+            .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void streamData() throws Exception {
+        //GIVEN
+        String line = "{\"currencyName\":\"USD\",\"value\":1,\"date\":\"2021-09-05\"}\n";
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write(line.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(rateStreamService).writeRates(any(), any(RateFilter.class), any());
+
+        MvcResult mvcResult = this.mockMvc.perform(get("/presentData")
+                .param("date", "2021-09-01:2021-09-08")
+                .param("stream", "true"))
+            .andExpect(MockMvcResultMatchers.request().asyncStarted())
+            .andReturn();
+
+        //WHEN
+        this.mockMvc.perform(asyncDispatch(mvcResult))
+
+            //THEN
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.content().contentType(DataController.APPLICATION_NDJSON))
+            .andExpect(MockMvcResultMatchers.content().string(line));
+    }
+
+    @Test
+    void export() throws Exception {
+        //GIVEN
+        String csv = "date,currency,value\n2021-09-05,USD,1.00000\n";
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write(csv.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).export(any(), eq(ExportFormat.CSV), any());
+
+        MvcResult mvcResult = this.mockMvc.perform(get("/export")
+                .param("date", "2021-09-01:2021-09-08"))
+            .andExpect(MockMvcResultMatchers.request().asyncStarted())
+            .andReturn();
+
+        //WHEN
+        this.mockMvc.perform(asyncDispatch(mvcResult))
+
+            //THEN
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.content().contentType(ExportFormat.CSV.getMediaType()))
+            .andExpect(MockMvcResultMatchers.content().string(csv));
+    }
+
+    @Test
+    void export_whenFormatUnknown() throws Exception {
+        //WHEN
+        this.mockMvc.perform(get("/export")
+                .param("date", "2021-09-05")
+                .param("format", "xml"))
+
+            //THEN
+            .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void backfill() throws Exception {
+        //GIVEN
+        BackfillJob job = new BackfillJob("jobId", "2021-09-01", "2021-09-02");
+        doReturn(job).when(backfillService).submit(LocalDate.of(2021, 9, 1), LocalDate.of(2021, 9, 2));
+
+        //WHEN
+        this.mockMvc.perform(post("/backfill").param("from", "2021-09-01").param("to", "2021-09-02"))
+
+            //THEN
+            .andExpect(MockMvcResultMatchers.status().isAccepted())
+            .andExpect(MockMvcResultMatchers.header().string("Location", "/backfill/jobId"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void backfillStatus() throws Exception {
+        //GIVEN
+        BackfillResult result = new BackfillResult();
+        result.setRequested(2);
+        BackfillJob job = new BackfillJob("jobId", "2021-09-01", "2021-09-02");
+        job.setStatus(BackfillJob.Status.SUCCEEDED);
+        job.setResult(result);
+        doReturn(Optional.of(job)).when(backfillService).getJob("jobId");
+
+        //WHEN
+        this.mockMvc.perform(get("/backfill/jobId"))
+
+            //THEN
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.status").value("SUCCEEDED"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.result.requested").value(2));
+    }
+
+    @Test
+    void backfillStatus_whenUnknownJob() throws Exception {
+        //GIVEN
+        doReturn(Optional.empty()).when(backfillService).getJob("unknown");
+
+        //WHEN
+        this.mockMvc.perform(get("/backfill/unknown"))
+
+            //THEN
+            .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    void streamData_whenDateMalformed() throws Exception {
+        //WHEN
+        this.mockMvc.perform(get("/presentData")
+                .param("date", "2021-13-01")
+                .param("stream", "true"))
+
+            //THEN
+            .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void backfill_whenDateMalformed() throws Exception {
+        //WHEN
+        this.mockMvc.perform(post("/backfill").param("from", "01.09.2021").param("to", "2021-09-02"))
+
+            //THEN
+            .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+}
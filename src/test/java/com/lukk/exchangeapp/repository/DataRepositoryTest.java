@@ -1,18 +1,21 @@
 package com.lukk.exchangeapp.repository;
 
+import com.lukk.exchangeapp.dto.RateRow;
 import com.lukk.exchangeapp.entity.Rate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.math.BigDecimal;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.GregorianCalendar;
+import java.time.LocalDate;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DataJpaTest
 class DataRepositoryTest {
@@ -20,20 +23,18 @@ class DataRepositoryTest {
     @Autowired
     DataRepository dataRepository;
 
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
     @Test
     void findAllByDateBefore() {
         //GIVEN
-        Calendar cal = new GregorianCalendar();
-        cal.add(Calendar.MONTH, -1);
-        Date monthAgo = cal.getTime();
-
-        cal.add(Calendar.WEEK_OF_MONTH, 3);
-        Date weekAgo = cal.getTime();
-
-        cal.add(Calendar.WEEK_OF_MONTH, 3);
+        LocalDate monthAgo = LocalDate.now().minusMonths(1);
+        LocalDate weekAgo = monthAgo.plusWeeks(3);
+        LocalDate later = weekAgo.plusWeeks(3);
 
         Rate expected = new Rate("USD", BigDecimal.ONE, monthAgo);
-        Rate additional = new Rate("USD", BigDecimal.ONE, cal.getTime());
+        Rate additional = new Rate("USD", BigDecimal.ONE, later);
 
         dataRepository.saveAll(List.of(expected, additional));
 
@@ -48,10 +49,7 @@ class DataRepositoryTest {
     @Test
     void findAllByDateBefore_whenNoRates() {
         //GIVEN
-        Calendar cal = new GregorianCalendar();
-        cal.add(Calendar.WEEK_OF_MONTH, -1);
-        Date weekAgo = cal.getTime();
-
+        LocalDate weekAgo = LocalDate.now().minusWeeks(1);
 
         //WHEN
         List<Rate> actual = dataRepository.findAllByDateBefore(weekAgo);
@@ -63,14 +61,11 @@ class DataRepositoryTest {
     @Test
     void findFirstByDateEquals() {
         //GIVEN
-        Calendar cal = new GregorianCalendar();
-        cal.add(Calendar.MONTH, -1);
-        Date monthAgo = cal.getTime();
-
-        cal.add(Calendar.WEEK_OF_MONTH, 3);
+        LocalDate monthAgo = LocalDate.now().minusMonths(1);
+        LocalDate weekAgo = monthAgo.plusWeeks(3);
 
         Rate expected = new Rate("USD", BigDecimal.ONE, monthAgo);
-        Rate additional = new Rate("USD", BigDecimal.ONE, cal.getTime());
+        Rate additional = new Rate("USD", BigDecimal.ONE, weekAgo);
 
         dataRepository.saveAll(List.of(expected, additional));
 
@@ -84,9 +79,7 @@ class DataRepositoryTest {
     @Test
     void findFirstByDateEquals_whenNoRates() {
         //GIVEN
-        Calendar cal = new GregorianCalendar();
-        cal.add(Calendar.MONTH, -1);
-        Date monthAgo = cal.getTime();
+        LocalDate monthAgo = LocalDate.now().minusMonths(1);
 
         //WHEN
         Rate actual = dataRepository.findFirstByDateEquals(monthAgo);
@@ -98,18 +91,13 @@ class DataRepositoryTest {
     @Test
     void findAllByDate() {
         //GIVEN
-        Calendar cal = new GregorianCalendar();
-        cal.add(Calendar.MONTH, -1);
-        Date monthAgo = cal.getTime();
-
-        cal.add(Calendar.WEEK_OF_MONTH, 3);
-        Date weekAgo = cal.getTime();
-
-        cal.add(Calendar.WEEK_OF_MONTH, 3);
+        LocalDate monthAgo = LocalDate.now().minusMonths(1);
+        LocalDate weekAgo = monthAgo.plusWeeks(3);
+        LocalDate later = weekAgo.plusWeeks(3);
 
         Rate expected = new Rate("USD", BigDecimal.ONE, monthAgo);
-        Rate secondExpected = new Rate("USD", BigDecimal.TEN, monthAgo);
-        Rate additional = new Rate("USD", BigDecimal.ONE, cal.getTime());
+        Rate secondExpected = new Rate("GBP", BigDecimal.TEN, monthAgo);
+        Rate additional = new Rate("USD", BigDecimal.ONE, later);
 
         dataRepository.saveAll(List.of(expected, secondExpected, additional));
 
@@ -123,9 +111,7 @@ class DataRepositoryTest {
     @Test
     void findAllByDate_whenNoRates() {
         //GIVEN
-        Calendar cal = new GregorianCalendar();
-        cal.add(Calendar.WEEK_OF_MONTH, -1);
-        Date weekAgo = cal.getTime();
+        LocalDate weekAgo = LocalDate.now().minusWeeks(1);
 
         //WHEN
         List<Rate> actual = dataRepository.findAllByDateBefore(weekAgo);
@@ -137,23 +123,15 @@ class DataRepositoryTest {
     @Test
     void findAllByDateAfterAndDateBefore() {
         //GIVEN
-        Calendar cal = new GregorianCalendar();
-        cal.add(Calendar.MONTH, -1);
-        Date monthAgo = cal.getTime();
-        cal.add(Calendar.DAY_OF_YEAR, 1);
-        Date almostMonthAgo = cal.getTime();
-
-        cal.add(Calendar.WEEK_OF_MONTH, 1);
-        Date threeWeeksAgo = cal.getTime();
-
-        cal.add(Calendar.WEEK_OF_MONTH, 2);
-        Date weekAgo = cal.getTime();
-
-        cal.add(Calendar.WEEK_OF_MONTH, 3);
+        LocalDate monthAgo = LocalDate.now().minusMonths(1);
+        LocalDate almostMonthAgo = monthAgo.plusDays(1);
+        LocalDate threeWeeksAgo = almostMonthAgo.plusWeeks(1);
+        LocalDate weekAgo = threeWeeksAgo.plusWeeks(2);
+        LocalDate later = weekAgo.plusWeeks(3);
 
         Rate expected = new Rate("USD", BigDecimal.ONE, almostMonthAgo);
         Rate secondExpected = new Rate("USD", BigDecimal.TEN, threeWeeksAgo);
-        Rate additional = new Rate("USD", BigDecimal.ONE, cal.getTime());
+        Rate additional = new Rate("USD", BigDecimal.ONE, later);
 
         dataRepository.saveAll(List.of(expected, secondExpected, additional));
 
@@ -167,12 +145,8 @@ class DataRepositoryTest {
     @Test
     void findAllByDateAfterAndDateBefore_whenNoRates() {
         //GIVEN
-        Calendar cal = new GregorianCalendar();
-        cal.add(Calendar.MONTH, -1);
-        Date monthAgo = cal.getTime();
-
-        cal.add(Calendar.WEEK_OF_MONTH, 3);
-        Date weekAgo = cal.getTime();
+        LocalDate monthAgo = LocalDate.now().minusMonths(1);
+        LocalDate weekAgo = monthAgo.plusWeeks(3);
 
         //WHEN
         List<Rate> actual = dataRepository.findAllByDateAfterAndDateBefore(monthAgo, weekAgo);
@@ -180,4 +154,128 @@ class DataRepositoryTest {
         //THEN
         assertEquals(0, actual.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findRowsByDate() {
+        //GIVEN
+        LocalDate monthAgo = LocalDate.now().minusMonths(1);
+
+        dataRepository.saveAll(List.of(
+            new Rate("USD", BigDecimal.ONE, monthAgo),
+            new Rate("GBP", BigDecimal.TEN, monthAgo),
+            new Rate("USD", BigDecimal.ONE, LocalDate.now())));
+
+        //WHEN
+        List<RateRow> actual = dataRepository.findRowsByDate(monthAgo);
+
+        //THEN
+        assertEquals(2, actual.size());
+        assertEquals(monthAgo, actual.get(0).getDate());
+    }
+
+    @Test
+    void findRowsByDateAfterAndDateBefore() {
+        //GIVEN
+        LocalDate monthAgo = LocalDate.now().minusMonths(1);
+        LocalDate almostMonthAgo = monthAgo.plusDays(1);
+        LocalDate weekAgo = almostMonthAgo.plusWeeks(3);
+
+        dataRepository.saveAll(List.of(
+            new Rate("USD", BigDecimal.TEN, weekAgo),
+            new Rate("USD", BigDecimal.ONE, almostMonthAgo),
+            new Rate("USD", BigDecimal.ONE, LocalDate.now())));
+
+        //WHEN
+        List<RateRow> actual = dataRepository.findRowsByDateAfterAndDateBefore(monthAgo, LocalDate.now());
+
+        //THEN
+        assertEquals(2, actual.size());
+        assertEquals(0, BigDecimal.ONE.compareTo(actual.get(0).getValue()));
+        assertEquals(0, BigDecimal.TEN.compareTo(actual.get(1).getValue()));
+    }
+
+    @Test
+    void findRows_whenCurrenciesAndCursor() {
+        //GIVEN
+        LocalDate monthAgo = LocalDate.now().minusMonths(1);
+        LocalDate almostMonthAgo = monthAgo.plusDays(1);
+        LocalDate start = almostMonthAgo.minusMonths(2);
+
+        dataRepository.saveAll(List.of(
+            new Rate("USD", BigDecimal.ONE, monthAgo),
+            new Rate("GBP", BigDecimal.ONE, monthAgo),
+            new Rate("HKD", BigDecimal.ONE, monthAgo),
+            new Rate("USD", BigDecimal.TEN, almostMonthAgo),
+            new Rate("GBP", BigDecimal.TEN, almostMonthAgo)));
+
+        //WHEN
+        List<RateRow> actual = dataRepository.findRows(start, LocalDate.now(), List.of("USD", "GBP"),
+            monthAgo, "GBP", 2);
+
+        //THEN
+        assertEquals(2, actual.size());
+        assertEquals("USD", actual.get(0).getCurrencyName());
+        assertEquals(monthAgo, actual.get(0).getDate());
+        assertEquals("GBP", actual.get(1).getCurrencyName());
+        assertEquals(almostMonthAgo, actual.get(1).getDate());
+    }
+
+    @Test
+    void findIdsByDateBefore() {
+        //GIVEN
+        LocalDate monthAgo = LocalDate.now().minusMonths(1);
+        LocalDate weekAgo = monthAgo.plusWeeks(3);
+
+        Rate first = new Rate("USD", BigDecimal.ONE, monthAgo);
+        Rate second = new Rate("GBP", BigDecimal.ONE, monthAgo);
+        Rate additional = new Rate("USD", BigDecimal.ONE, LocalDate.now());
+
+        dataRepository.saveAll(List.of(first, second, additional));
+
+        //WHEN
+        List<Long> actual = dataRepository.findIdsByDateBefore(weekAgo, PageRequest.of(0, 1));
+
+        //THEN
+        assertEquals(List.of(first.getId()), actual);
+    }
+
+    @Test
+    void deleteByIds() {
+        //GIVEN
+        Rate toDelete = new Rate("USD", BigDecimal.ONE, LocalDate.now());
+        Rate additional = new Rate("GBP", BigDecimal.ONE, LocalDate.now());
+
+        dataRepository.saveAll(List.of(toDelete, additional));
+
+        //WHEN
+        int actual = dataRepository.deleteByIds(List.of(toDelete.getId()));
+
+        //THEN
+        assertEquals(1, actual);
+        assertEquals(1, dataRepository.count());
+    }
+
+    @Test
+    void saveAll_whenDuplicateDateAndCurrency() {
+        //GIVEN
+        LocalDate date = LocalDate.now();
+        List<Rate> rates = List.of(new Rate("USD", BigDecimal.ONE, date), new Rate("USD", BigDecimal.TEN, date));
+
+        //WHEN
+        //THEN
+        assertThrows(DataIntegrityViolationException.class, () -> dataRepository.saveAllAndFlush(rates));
+    }
+
+    @Test
+    void save_storesDateAsEpochDay() {
+        //GIVEN
+        LocalDate date = LocalDate.of(2021, 9, 5);
+
+        //WHEN
+        dataRepository.saveAndFlush(new Rate("USD", BigDecimal.ONE, date));
+
+        //THEN
+        Integer actual = jdbcTemplate.queryForObject("SELECT date FROM rate", Integer.class);
+        assertEquals(date.toEpochDay(), actual.longValue());
+    }
+}
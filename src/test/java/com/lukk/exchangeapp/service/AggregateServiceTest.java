@@ -0,0 +1,121 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.AggregateDTO;
+import com.lukk.exchangeapp.dto.RateDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AggregateServiceTest {
+
+    private AggregateService aggregateService;
+
+    @BeforeEach
+    public void setup() {
+        aggregateService = new AggregateService();
+
+        save(LocalDate.of(2021, 8, 30), "1.1");
+        save(LocalDate.of(2021, 8, 31), "1.4");
+        save(LocalDate.of(2021, 9, 1), "1.0");
+        save(LocalDate.of(2021, 9, 2), "1.2");
+    }
+
+    @Test
+    void getAggregates_week() {
+        //WHEN
+        List<AggregateDTO> actual = aggregateService.getAggregates(AggregateService.Period.WEEK,
+            LocalDate.of(2021, 9, 1), LocalDate.of(2021, 9, 1));
+
+        //THEN
+        AggregateDTO expected = new AggregateDTO("USD", "2021-08-30", "2021-09-05", 4,
+            new BigDecimal("1.10000"), new BigDecimal("1.40000"), new BigDecimal("1.00000"),
+            new BigDecimal("1.20000"), new BigDecimal("1.17500"));
+        assertEquals(List.of(expected), actual);
+    }
+
+    @Test
+    void getAggregates_day() {
+        //WHEN
+        List<AggregateDTO> actual = aggregateService.getAggregates(AggregateService.Period.DAY,
+            LocalDate.of(2021, 8, 31), LocalDate.of(2021, 9, 1));
+
+        //THEN
+        assertEquals(2, actual.size());
+        assertEquals("2021-08-31", actual.get(0).getEnd());
+        assertEquals(new BigDecimal("1.40000"), actual.get(0).getMean());
+        assertEquals(1, actual.get(1).getDays());
+        assertEquals(new BigDecimal("1.00000"), actual.get(1).getClose());
+    }
+
+    @Test
+    void getAggregates_month() {
+        //WHEN
+        List<AggregateDTO> actual = aggregateService.getAggregates(AggregateService.Period.MONTH,
+            LocalDate.of(2021, 8, 1), LocalDate.of(2021, 9, 30));
+
+        //THEN
+        assertEquals(2, actual.size());
+        assertEquals("2021-08-01", actual.get(0).getStart());
+        assertEquals(new BigDecimal("1.25000"), actual.get(0).getMean());
+        assertEquals("2021-09-01", actual.get(1).getStart());
+        assertEquals(new BigDecimal("1.10000"), actual.get(1).getMean());
+    }
+
+    @Test
+    void onRatesSaved_whenDayAlreadyStored() {
+        //GIVEN
+        save(LocalDate.of(2021, 9, 2), "2.0");
+
+        //WHEN
+        List<AggregateDTO> actual = aggregateService.getAggregates(AggregateService.Period.MONTH,
+            LocalDate.of(2021, 9, 1), LocalDate.of(2021, 9, 1));
+
+        //THEN
+        assertEquals(2, actual.get(0).getDays());
+        assertEquals(new BigDecimal("2.00000"), actual.get(0).getHigh());
+        assertEquals(new BigDecimal("1.50000"), actual.get(0).getMean());
+    }
+
+    @Test
+    void onRatesPurged() {
+        //GIVEN
+        RatesPurgedEvent event = new RatesPurgedEvent(LocalDate.of(2021, 9, 1));
+
+        //WHEN
+        aggregateService.onRatesPurged(event);
+
+        //THEN
+        List<AggregateDTO> months = aggregateService.getAggregates(AggregateService.Period.MONTH,
+            LocalDate.of(2021, 8, 1), LocalDate.of(2021, 9, 30));
+        List<AggregateDTO> weeks = aggregateService.getAggregates(AggregateService.Period.WEEK,
+            LocalDate.of(2021, 8, 30), LocalDate.of(2021, 8, 30));
+        assertEquals(1, months.size());
+        assertEquals("2021-09-01", months.get(0).getStart());
+        assertEquals(2, weeks.get(0).getDays());
+        assertEquals(new BigDecimal("1.00000"), weeks.get(0).getOpen());
+    }
+
+    @Test
+    void getAggregates_whenToBeforeFrom() {
+        //WHEN
+        ResponseStatusException actual = assertThrows(ResponseStatusException.class,
+            () -> aggregateService.getAggregates(AggregateService.Period.WEEK,
+                LocalDate.of(2021, 9, 2), LocalDate.of(2021, 9, 1)));
+
+        //THEN
+        assertEquals(HttpStatus.BAD_REQUEST, actual.getStatus());
+    }
+
+    private void save(LocalDate day, String value) {
+        aggregateService.onRatesSaved(new RatesSavedEvent(day,
+            List.of(new RateDTO("USD", new BigDecimal(value), day.toString()))));
+    }
+}
@@ -0,0 +1,147 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.dto.BackfillJob;
+import com.lukk.exchangeapp.dto.BackfillResult;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs backfill against local stub of exchange service.
+ */
+class BackfillServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2021, 9, 1);
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private HttpServer server;
+    private ThreadPoolTaskExecutor executor;
+    private DataService dataService;
+    private PropertyConfig propertyConfig;
+    private BackfillService backfillService;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/v1/", exchange -> {
+            requests.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            String day = path.substring(path.lastIndexOf('/') + 1);
+            int status = day.equals(FROM.plusDays(2).toString()) ? 500 : 200;
+
+            byte[] body = ("{\"success\":true,\"base\":\"EUR\",\"date\":\"" + day + "\","
+                + "\"rates\":{\"USD\":1.18,\"GBP\":0.85}}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        propertyConfig = new PropertyConfig();
+        propertyConfig.setHistoryUrl("http://localhost:" + server.getAddress().getPort() + "/v1");
+        propertyConfig.setAccessKey("testKey");
+        propertyConfig.setSymbols("USD,GBP");
+        propertyConfig.setBase("EUR");
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.initialize();
+
+        dataService = mock(DataService.class);
+        RateMetrics rateMetrics = new RateMetrics(new SimpleMeterRegistry());
+        ExchangeClient exchangeClient = new ExchangeClient(new RestTemplate(), propertyConfig, rateMetrics,
+            new UpstreamCache(16));
+        backfillService = new BackfillService(exchangeClient, dataService, executor, new RequestRateLimiter(100),
+            propertyConfig);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void backfill() {
+        //GIVEN
+        doReturn(true).when(dataService).isAlreadyRegistered(FROM);
+
+        //WHEN
+        BackfillResult actual = backfillService.backfill(FROM, FROM.plusDays(3)).join();
+
+        //THEN
+        assertEquals(4, actual.getRequested());
+        assertEquals(1, actual.getSkipped());
+        assertEquals(2, actual.getDownloaded());
+        assertEquals(1, actual.getFailed());
+        assertEquals(4, actual.getSavedRates());
+        assertEquals(3, requests.get());
+        verify(dataService, times(2)).saveRates(any());
+    }
+
+    @Test
+    void submit() throws Exception {
+        //GIVEN
+        doReturn(true).when(dataService).isAlreadyRegistered(FROM);
+
+        //WHEN
+        BackfillJob job = backfillService.submit(FROM, FROM.plusDays(1));
+
+        //THEN
+        for (int i = 0; i < 100 && job.getFinishedAt() == null; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(BackfillJob.Status.SUCCEEDED, job.getStatus());
+        assertEquals(2, job.getResult().getRequested());
+        assertEquals(1, job.getResult().getDownloaded());
+        assertEquals(Optional.of(job), backfillService.getJob(job.getId()));
+    }
+
+    @Test
+    void submit_whenRangeInverted() {
+        //WHEN
+        ResponseStatusException actual = assertThrows(ResponseStatusException.class,
+            () -> backfillService.submit(FROM, FROM.minusDays(1)));
+
+        //THEN
+        assertEquals(HttpStatus.BAD_REQUEST, actual.getStatus());
+        assertEquals(0, requests.get());
+    }
+
+    @Test
+    void submit_whenRangeTooLong() {
+        //GIVEN
+        propertyConfig.getBackfill().setMaxDays(2);
+
+        //WHEN
+        ResponseStatusException actual = assertThrows(ResponseStatusException.class,
+            () -> backfillService.submit(FROM, FROM.plusDays(2)));
+
+        //THEN
+        assertEquals(HttpStatus.BAD_REQUEST, actual.getStatus());
+        assertEquals(0, requests.get());
+    }
+}
@@ -0,0 +1,76 @@
+package com.lukk.exchangeapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2021-09-05T10:00:00Z"), ZoneId.of("UTC"));
+
+    @Test
+    void allowRequest_whenFailuresReachThreshold() {
+        //GIVEN
+        CircuitBreaker circuitBreaker = new CircuitBreaker(2, Duration.ofSeconds(30), CLOCK);
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+
+        //WHEN
+        boolean actual = circuitBreaker.allowRequest();
+
+        //THEN
+        assertFalse(actual);
+        assertTrue(circuitBreaker.isOpen());
+    }
+
+    @Test
+    void allowRequest_whenSuccessBetweenFailures() {
+        //GIVEN
+        CircuitBreaker circuitBreaker = new CircuitBreaker(2, Duration.ofSeconds(30), CLOCK);
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure();
+
+        //WHEN
+        boolean actual = circuitBreaker.allowRequest();
+
+        //THEN
+        assertTrue(actual);
+    }
+
+    @Test
+    void allowRequest_whenOpenDurationPassed() {
+        //GIVEN
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, Duration.ZERO, CLOCK);
+        circuitBreaker.recordFailure();
+
+        //WHEN
+        boolean trial = circuitBreaker.allowRequest();
+        boolean concurrent = circuitBreaker.allowRequest();
+
+        //THEN
+        assertTrue(trial);
+        assertFalse(concurrent);
+    }
+
+    @Test
+    void recordSuccess_closesAfterTrial() {
+        //GIVEN
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, Duration.ZERO, CLOCK);
+        circuitBreaker.recordFailure();
+        circuitBreaker.allowRequest();
+
+        //WHEN
+        circuitBreaker.recordSuccess();
+
+        //THEN
+        assertFalse(circuitBreaker.isOpen());
+        assertTrue(circuitBreaker.allowRequest());
+        assertTrue(circuitBreaker.allowRequest());
+    }
+}
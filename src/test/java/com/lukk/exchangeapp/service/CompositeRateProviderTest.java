@@ -0,0 +1,197 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.RatesResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompositeRateProviderTest {
+
+    private static final LocalDate DAY = LocalDate.of(2021, 9, 5);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void getLatest_whenFirstProviderSlow() {
+        //GIVEN
+        StubProvider slow = new StubProvider(Map.of("USD", BigDecimal.ONE), 2000);
+        StubProvider fast = new StubProvider(Map.of("USD", BigDecimal.TEN), 0);
+        CompositeRateProvider provider = new CompositeRateProvider(
+            List.of(source("slow", slow, 5000), source("fast", fast, 5000)),
+            CompositeRateProvider.Strategy.FASTEST, Duration.ofMillis(10), executor);
+
+        //WHEN
+        long started = System.nanoTime();
+        RatesResponse actual = provider.getLatest();
+
+        //THEN
+        assertEquals(Map.of("USD", BigDecimal.TEN), actual.getRates());
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).toMillis() < 1000);
+    }
+
+    @Test
+    void getHistorical_whenFirstProviderFails() {
+        //GIVEN
+        StubProvider failing = new StubProvider(null, 0);
+        StubProvider working = new StubProvider(Map.of("USD", BigDecimal.TEN), 0);
+        CompositeRateProvider provider = new CompositeRateProvider(
+            List.of(source("failing", failing, 1000), source("working", working, 1000)),
+            CompositeRateProvider.Strategy.FASTEST, Duration.ofSeconds(10), executor);
+
+        //WHEN
+        RatesResponse actual = provider.getHistorical(DAY);
+
+        //THEN
+        assertEquals(Map.of("USD", BigDecimal.TEN), actual.getRates());
+        assertEquals(DAY, actual.getDate());
+    }
+
+    @Test
+    void getLatest_whenProviderTimesOut() {
+        //GIVEN
+        StubProvider slow = new StubProvider(Map.of("USD", BigDecimal.ONE), 2000);
+        StubProvider working = new StubProvider(Map.of("USD", BigDecimal.TEN), 0);
+        CompositeRateProvider.Source slowSource = source("slow", slow, 50);
+        CompositeRateProvider provider = new CompositeRateProvider(
+            List.of(slowSource, source("working", working, 1000)),
+            CompositeRateProvider.Strategy.FASTEST, Duration.ofSeconds(10), executor);
+
+        //WHEN
+        RatesResponse actual = provider.getLatest();
+
+        //THEN
+        assertEquals(Map.of("USD", BigDecimal.TEN), actual.getRates());
+        assertTrue(slowSource.getCircuitBreaker().isOpen());
+    }
+
+    @Test
+    void getLatest_whenCircuitBreakerOpen() {
+        //GIVEN
+        StubProvider skipped = new StubProvider(Map.of("USD", BigDecimal.ONE), 0);
+        StubProvider working = new StubProvider(Map.of("USD", BigDecimal.TEN), 0);
+        CompositeRateProvider.Source skippedSource = source("skipped", skipped, 1000);
+        skippedSource.getCircuitBreaker().recordFailure();
+        CompositeRateProvider provider = new CompositeRateProvider(
+            List.of(skippedSource, source("working", working, 1000)),
+            CompositeRateProvider.Strategy.FASTEST, Duration.ofSeconds(10), executor);
+
+        //WHEN
+        RatesResponse actual = provider.getLatest();
+
+        //THEN
+        assertEquals(Map.of("USD", BigDecimal.TEN), actual.getRates());
+        assertEquals(0, skipped.calls.get());
+    }
+
+    @Test
+    void getLatest_whenLaterProviderNotReached() {
+        //GIVEN
+        StubProvider working = new StubProvider(Map.of("USD", BigDecimal.TEN), 0);
+        StubProvider halfOpen = new StubProvider(Map.of("USD", BigDecimal.ONE), 0);
+        CompositeRateProvider.Source halfOpenSource = new CompositeRateProvider.Source("half-open", halfOpen,
+            Duration.ofSeconds(1), new CircuitBreaker(1, Duration.ZERO, Clock.systemDefaultZone()));
+        halfOpenSource.getCircuitBreaker().recordFailure();
+        CompositeRateProvider provider = new CompositeRateProvider(
+            List.of(source("working", working, 1000), halfOpenSource),
+            CompositeRateProvider.Strategy.FASTEST, Duration.ofSeconds(10), executor);
+
+        //WHEN
+        RatesResponse actual = provider.getLatest();
+
+        //THEN
+        assertEquals(Map.of("USD", BigDecimal.TEN), actual.getRates());
+        assertEquals(0, halfOpen.calls.get());
+        assertTrue(halfOpenSource.getCircuitBreaker().allowRequest());
+    }
+
+    @Test
+    void getLatest_whenAllProvidersFail() {
+        //GIVEN
+        CompositeRateProvider provider = new CompositeRateProvider(
+            List.of(source("first", new StubProvider(null, 0), 1000),
+                source("second", new StubProvider(null, 0), 1000)),
+            CompositeRateProvider.Strategy.FASTEST, Duration.ofMillis(10), executor);
+
+        //WHEN
+        IllegalStateException actual = assertThrows(IllegalStateException.class, provider::getLatest);
+
+        //THEN
+        assertEquals("No rate provider returned valid rates", actual.getMessage());
+    }
+
+    @Test
+    void getLatest_merge() {
+        //GIVEN
+        StubProvider first = new StubProvider(Map.of("USD", BigDecimal.ONE), 0);
+        StubProvider second = new StubProvider(Map.of("USD", BigDecimal.TEN, "GBP", BigDecimal.ONE), 0);
+        CompositeRateProvider provider = new CompositeRateProvider(
+            List.of(source("first", first, 1000), source("second", second, 1000)),
+            CompositeRateProvider.Strategy.MERGE, Duration.ofMillis(10), executor);
+
+        //WHEN
+        RatesResponse actual = provider.getLatest();
+
+        //THEN
+        assertEquals(Map.of("USD", BigDecimal.ONE, "GBP", BigDecimal.ONE), actual.getRates());
+    }
+
+    private static CompositeRateProvider.Source source(String name, RateProvider provider, long timeoutMillis) {
+        return new CompositeRateProvider.Source(name, provider, Duration.ofMillis(timeoutMillis),
+            new CircuitBreaker(1, Duration.ofMinutes(1), Clock.systemDefaultZone()));
+    }
+
+    /**
+     * Local provider answering after given delay, failing when it has no Rates.
+     */
+    private static final class StubProvider implements RateProvider {
+
+        private final Map<String, BigDecimal> rates;
+        private final long delayMillis;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private StubProvider(Map<String, BigDecimal> rates, long delayMillis) {
+            this.rates = rates;
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public RatesResponse getLatest() {
+            return getHistorical(DAY);
+        }
+
+        @Override
+        public RatesResponse getHistorical(LocalDate day) {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (rates == null) {
+                throw new IllegalStateException("upstream down");
+            }
+
+            RatesResponse ratesResponse = new RatesResponse();
+            ratesResponse.setBase("EUR");
+            ratesResponse.setDate(day);
+            ratesResponse.setRates(rates);
+            return ratesResponse;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.dto.ConversionDTO;
+import com.lukk.exchangeapp.dto.RateDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class CrossRateServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2021, 9, 5);
+    private static final List<RateDTO> RATES = List.of(
+        new RateDTO("USD", new BigDecimal("1.2"), DAY.toString()),
+        new RateDTO("GBP", new BigDecimal("0.8"), DAY.toString()));
+
+    private DataService dataService;
+    private CrossRateService crossRateService;
+
+    @BeforeEach
+    public void setup() {
+        PropertyConfig propertyConfig = new PropertyConfig();
+        propertyConfig.setBase("EUR");
+
+        dataService = mock(DataService.class);
+        crossRateService = new CrossRateService(dataService, propertyConfig);
+    }
+
+    @Test
+    void convert() {
+        //GIVEN
+        doReturn(RATES).when(dataService).getRatesForDay(DAY);
+
+        //WHEN
+        ConversionDTO actual = crossRateService.convert(DAY, "gbp", "usd", BigDecimal.TEN);
+
+        //THEN
+        assertEquals("GBP", actual.getFrom());
+        assertEquals("USD", actual.getTo());
+        assertEquals(0, new BigDecimal("1.5").compareTo(actual.getRate()));
+        assertEquals(0, new BigDecimal("15").compareTo(actual.getResult()));
+    }
+
+    @Test
+    void convert_whenMatrixComputed() {
+        //GIVEN
+        doReturn(RATES).when(dataService).getRatesForDay(DAY);
+        crossRateService.convert(DAY, "GBP", "USD", BigDecimal.ONE);
+
+        //WHEN
+        ConversionDTO actual = crossRateService.convert(DAY, "USD", "EUR", new BigDecimal("1.2"));
+
+        //THEN
+        assertEquals(0, BigDecimal.ONE.compareTo(actual.getResult()));
+        verify(dataService, times(1)).getRatesForDay(DAY);
+    }
+
+    @Test
+    void convert_whenMatrixPrecomputed() {
+        //GIVEN
+        doReturn(RATES).when(dataService).getRatesForDay(DAY);
+        crossRateService.onRatesSaved(new RatesSavedEvent(DAY, RATES));
+
+        //WHEN
+        ConversionDTO actual = crossRateService.convert(DAY, "USD", "EUR", new BigDecimal("1.2"));
+
+        //THEN
+        assertEquals(0, BigDecimal.ONE.compareTo(actual.getResult()));
+        verify(dataService, times(1)).getRatesForDay(DAY);
+    }
+
+    @Test
+    void convert_whenRatesSavedWhileMatrixBuilt() {
+        //GIVEN
+        List<RateDTO> updated = List.of(new RateDTO("USD", new BigDecimal("1.6"), DAY.toString()),
+            new RateDTO("GBP", new BigDecimal("0.8"), DAY.toString()));
+        AtomicBoolean first = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                crossRateService.onRatesSaved(new RatesSavedEvent(DAY, updated));
+                return RATES;
+            }
+            return updated;
+        }).when(dataService).getRatesForDay(DAY);
+        crossRateService.convert(DAY, "GBP", "USD", BigDecimal.ONE);
+
+        //WHEN
+        ConversionDTO actual = crossRateService.convert(DAY, "GBP", "USD", BigDecimal.ONE);
+
+        //THEN
+        assertEquals(0, new BigDecimal("2").compareTo(actual.getRate()));
+    }
+
+    @Test
+    void convert_whenRatesSavedAgain() {
+        //GIVEN
+        doReturn(RATES).when(dataService).getRatesForDay(DAY);
+        crossRateService.convert(DAY, "GBP", "USD", BigDecimal.ONE);
+
+        List<RateDTO> updated = List.of(new RateDTO("USD", new BigDecimal("1.6"), DAY.toString()),
+            new RateDTO("GBP", new BigDecimal("0.8"), DAY.toString()));
+        doReturn(updated).when(dataService).getRatesForDay(DAY);
+        crossRateService.onRatesSaved(new RatesSavedEvent(DAY, updated.subList(0, 1)));
+
+        //WHEN
+        ConversionDTO actual = crossRateService.convert(DAY, "GBP", "USD", BigDecimal.ONE);
+
+        //THEN
+        assertEquals(0, new BigDecimal("2").compareTo(actual.getRate()));
+    }
+
+    @Test
+    void convert_whenRatesPurged() {
+        //GIVEN
+        doReturn(RATES).when(dataService).getRatesForDay(DAY);
+        crossRateService.convert(DAY, "GBP", "USD", BigDecimal.ONE);
+
+        doReturn(List.of()).when(dataService).getRatesForDay(DAY);
+        crossRateService.onRatesPurged(new RatesPurgedEvent(DAY.plusDays(1)));
+
+        //WHEN
+        ResponseStatusException actual = assertThrows(ResponseStatusException.class,
+            () -> crossRateService.convert(DAY, "GBP", "USD", BigDecimal.ONE));
+
+        //THEN
+        assertEquals(HttpStatus.NOT_FOUND, actual.getStatus());
+    }
+
+    @Test
+    void getCrossRates() {
+        //GIVEN
+        doReturn(RATES).when(dataService).getRatesForDay(DAY);
+
+        //WHEN
+        Map<String, BigDecimal> actual = crossRateService.getCrossRates(DAY, "GBP");
+
+        //THEN
+        assertEquals(0, BigDecimal.ONE.compareTo(actual.get("GBP")));
+        assertEquals(0, new BigDecimal("1.5").compareTo(actual.get("USD")));
+        assertEquals(0, new BigDecimal("1.25").compareTo(actual.get("EUR")));
+    }
+
+    @Test
+    void convert_whenRateZero() {
+        //GIVEN
+        doReturn(List.of(new RateDTO("USD", new BigDecimal("1.2"), DAY.toString()),
+            new RateDTO("GBP", BigDecimal.ZERO, DAY.toString()))).when(dataService).getRatesForDay(DAY);
+
+        //WHEN
+        ResponseStatusException actual = assertThrows(ResponseStatusException.class,
+            () -> crossRateService.convert(DAY, "GBP", "USD", BigDecimal.ONE));
+
+        //THEN
+        assertEquals(HttpStatus.BAD_REQUEST, actual.getStatus());
+    }
+
+    @Test
+    void convert_whenUnknownCurrency() {
+        //GIVEN
+        doReturn(RATES).when(dataService).getRatesForDay(DAY);
+
+        //WHEN
+        ResponseStatusException actual = assertThrows(ResponseStatusException.class,
+            () -> crossRateService.convert(DAY, "GBP", "XXX", BigDecimal.ONE));
+
+        //THEN
+        assertEquals(HttpStatus.BAD_REQUEST, actual.getStatus());
+    }
+
+    @Test
+    void convert_whenNoRates() {
+        //GIVEN
+        doReturn(List.of()).when(dataService).getRatesForDay(DAY);
+
+        //WHEN
+        ResponseStatusException actual = assertThrows(ResponseStatusException.class,
+            () -> crossRateService.convert(DAY, "GBP", "USD", BigDecimal.ONE));
+
+        //THEN
+        assertEquals(HttpStatus.NOT_FOUND, actual.getStatus());
+    }
+}
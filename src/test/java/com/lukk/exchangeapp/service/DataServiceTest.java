@@ -1,31 +1,39 @@
 package com.lukk.exchangeapp.service;
 
-import com.google.gson.Gson;
 import com.lukk.exchangeapp.config.PropertyConfig;
 import com.lukk.exchangeapp.dto.RateDTO;
+import com.lukk.exchangeapp.dto.RatePage;
+import com.lukk.exchangeapp.dto.RateRow;
 import com.lukk.exchangeapp.dto.RatesResponse;
+import com.lukk.exchangeapp.dto.RetentionResult;
 import com.lukk.exchangeapp.entity.Rate;
 import com.lukk.exchangeapp.repository.DataRepository;
-import org.junit.jupiter.api.BeforeEach;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.http.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
-import static com.lukk.exchangeapp.service.DataService.DATE_FORMAT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -36,66 +44,100 @@ class DataServiceTest {
     DataRepository repository;
 
     @Mock
-    RestTemplate rest;
+    RateProvider rateProvider;
 
     @Mock
-    PropertyConfig propertyConfig;
+    RetentionService retentionService;
+
+    @Mock
+    RateWriter rateWriter;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    PropertyConfig propertyConfig = new PropertyConfig();
+
+    @Spy
+    RateCache rateCache = new RateCache(10, Duration.ofHours(1), Clock.systemDefaultZone());
+
+    @Spy
+    RateMetrics rateMetrics = new RateMetrics(new SimpleMeterRegistry());
+
+    @Spy
+    RateSeriesStore rateSeriesStore = new RateSeriesStore(true);
 
     @InjectMocks
     DataService dataService;
 
-    @BeforeEach
-    public void setup() {
-        doReturn("http://test.url").when(propertyConfig).getUrl();
-        doReturn("testKey").when(propertyConfig).getAccessKey();
-        doReturn("testSymbols").when(propertyConfig).getSymbols();
-        doReturn("testBase").when(propertyConfig).getBase();
-    }
-
     @Test
     void clearOldRates() {
         //GIVEN
-        List<Rate> toDelete = List.of(new Rate("USD", BigDecimal.ONE, new Date()));
-        doReturn(toDelete).when(repository).findAllByDateBefore(any());
+        RetentionResult result = new RetentionResult(LocalDate.now(), 1, Duration.ofMillis(1));
+        doReturn(result).when(retentionService).purge();
 
         //WHEN
         dataService.clearOldRates();
 
         //THEN
-        verify(repository).deleteAll(toDelete);
+        verify(retentionService).purge();
+        verify(repository, never()).deleteAll(any());
+        verify(eventPublisher).publishEvent(any(RatesPurgedEvent.class));
     }
 
     @Test
     void downloadData() {
         //GIVEN
-        HttpEntity<String> entity = createEntity();
-        ResponseEntity<String> response = createResponse();
-
-        doReturn(response).when(rest).exchange(anyString(), eq(HttpMethod.GET), eq(entity), eq(String.class));
+        doReturn(new PropertyConfig.Writer()).when(propertyConfig).getWriter();
+        doReturn(createResponse()).when(rateProvider).getLatest();
+        doCallRealMethod().when(rateProvider).streamLatest(anyInt(), any());
 
         //WHEN
-        dataService.downloadData();
+        int actual = dataService.downloadData();
 
         //THEN
-        verify(repository, times(1)).saveAll(any());
+        assertEquals(1, actual);
+        verify(rateWriter, times(1)).write(any());
+        verify(eventPublisher, times(1)).publishEvent(any(RatesSavedEvent.class));
     }
 
+    @Test
+    void downloadData_whenSeveralBatches() {
+        //GIVEN
+        PropertyConfig.Writer writer = new PropertyConfig.Writer();
+        writer.setBatchSize(2);
+        doReturn(writer).when(propertyConfig).getWriter();
+        RatesResponse response = createResponse();
+        response.setRates(Map.of("USD", BigDecimal.ONE, "GBP", BigDecimal.TEN, "HKD", BigDecimal.ONE));
+        doReturn(response).when(rateProvider).getLatest();
+        doCallRealMethod().when(rateProvider).streamLatest(anyInt(), any());
+
+        //WHEN
+        int actual = dataService.downloadData();
+
+        //THEN
+        assertEquals(3, actual);
+        verify(rateWriter, times(2)).write(any());
+        verify(eventPublisher, times(1)).publishEvent(any(RatesSavedEvent.class));
+        assertEquals(3, rateCache.get(response.getDate()).size());
+    }
 
     @Test
-    void getRates_whenRange() throws ParseException {
+    void getRates_whenRange() {
         //GIVEN
-        SimpleDateFormat formatter = new SimpleDateFormat(DATE_FORMAT);
-        Rate rate = new Rate("USD", BigDecimal.ONE, formatter.parse("2021-09-05"));
-        List<Rate> rates = List.of(rate);
+        RateRow rate = new RateRow("USD", BigDecimal.ONE, LocalDate.parse("2021-09-05"));
+        List<RateRow> rates = List.of(rate);
         List<RateDTO> expected = List.of(
-            new RateDTO(rate.getCurrencyName(), rate.getValue(), formatter.format(rate.getDate())));
+            new RateDTO(rate.getCurrencyName(), rate.getValue(), rate.getDate().toString()));
 
-        Date startDate = formatter.parse("2021-09-01");
-        Date endDate = formatter.parse("2021-09-08");
+        LocalDate startDate = LocalDate.parse("2021-09-01");
+        LocalDate endDate = LocalDate.parse("2021-09-08");
 
-        String dates = formatter.format(startDate) + ":" + formatter.format(endDate);
+        String dates = startDate + ":" + endDate;
 
-        doReturn(rates).when(repository).findAllByDateAfterAndDateBefore(startDate, endDate);
+        doReturn(List.of(rate.getDate())).when(repository).findStoredDays(startDate, endDate);
+        doReturn(rates).when(repository)
+            .findRowsByDateAfterAndDateBefore(LocalDate.parse("2021-09-04"), LocalDate.parse("2021-09-06"));
 
         //WHEN
         List<RateDTO> actual = dataService.getRates(dates);
@@ -105,40 +147,186 @@ class DataServiceTest {
     }
 
     @Test
-    void getRates_whenSingleDate() throws ParseException {
+    void getRates_whenSingleDate() {
         //GIVEN
         String date = "2021-09-05";
-        SimpleDateFormat formatter = new SimpleDateFormat(DATE_FORMAT);
-        Rate rate = new Rate("USD", BigDecimal.ONE, formatter.parse(date));
+        RateRow rate = new RateRow("USD", BigDecimal.ONE, LocalDate.parse(date));
 
-        List<Rate> rates = List.of(rate);
+        List<RateRow> rates = List.of(rate);
         List<RateDTO> expected = List.of(
-            new RateDTO(rate.getCurrencyName(), rate.getValue(), formatter.format(rate.getDate())));
+            new RateDTO(rate.getCurrencyName(), rate.getValue(), rate.getDate().toString()));
+
+        doReturn(rates).when(repository).findRowsByDate(LocalDate.parse(date));
+
+        //WHEN
+        List<RateDTO> actual = dataService.getRates(date);
+
+        //THEN
+        assertEquals(expected, actual);
+    }
 
-        doReturn(rates).when(repository).findAllByDate(formatter.parse(date));
+    @Test
+    void getRates_whenSingleDateCached() {
+        //GIVEN
+        String date = "2021-09-05";
+        RateRow rate = new RateRow("USD", BigDecimal.ONE, LocalDate.parse(date));
+
+        doReturn(List.of(rate)).when(repository).findRowsByDate(LocalDate.parse(date));
+        List<RateDTO> expected = dataService.getRates(date);
 
         //WHEN
         List<RateDTO> actual = dataService.getRates(date);
 
         //THEN
         assertEquals(expected, actual);
+        verify(repository, times(1)).findRowsByDate(any());
+        verify(rateMetrics, times(2)).recordQuery(eq(false), anyLong(), eq(1));
     }
 
-    private HttpEntity<String> createEntity() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
-        return new HttpEntity<>(headers);
+    @Test
+    void getRates_whenRangePartiallyCached() {
+        //GIVEN
+        RateRow cachedRate = new RateRow("USD", BigDecimal.ONE, LocalDate.parse("2021-09-02"));
+        RateRow loadedRate = new RateRow("USD", BigDecimal.TEN, LocalDate.parse("2021-09-05"));
+
+        doReturn(List.of(cachedRate)).when(repository).findRowsByDate(LocalDate.parse("2021-09-02"));
+        dataService.getRates("2021-09-02");
+
+        doReturn(List.of(cachedRate.getDate(), loadedRate.getDate())).when(repository)
+            .findStoredDays(LocalDate.parse("2021-09-01"), LocalDate.parse("2021-09-08"));
+        doReturn(List.of(loadedRate)).when(repository)
+            .findRowsByDateAfterAndDateBefore(LocalDate.parse("2021-09-04"), LocalDate.parse("2021-09-06"));
+
+        List<RateDTO> expected = List.of(
+            new RateDTO("USD", BigDecimal.ONE, "2021-09-02"),
+            new RateDTO("USD", BigDecimal.TEN, "2021-09-05"));
+
+        //WHEN
+        List<RateDTO> actual = dataService.getRates("2021-09-01:2021-09-08");
+
+        //THEN
+        assertEquals(expected, actual);
+        verify(repository, times(1)).findRowsByDateAfterAndDateBefore(any(), any());
+    }
+
+    @Test
+    void getRates_whenRangeDayHasNoRequestedRates() {
+        //GIVEN
+        LocalDate day = LocalDate.parse("2021-09-05");
+        doReturn(List.of(day)).when(repository)
+            .findStoredDays(LocalDate.parse("2021-09-01"), LocalDate.parse("2021-09-08"));
+        doReturn(List.of()).when(repository).findRows(eq(LocalDate.parse("2021-09-04")),
+            eq(LocalDate.parse("2021-09-06")), eq(Set.of("GBP")), isNull(), isNull(), eq(0));
+
+        //WHEN
+        List<RateDTO> actual = dataService.getRates("2021-09-01:2021-09-08", "GBP", null);
+
+        //THEN
+        assertEquals(List.of(), actual);
+        verify(rateCache, never()).put(any(), any(), any());
+    }
+
+    @Test
+    void getRates_whenRangeTooLong() {
+        //GIVEN
+        propertyConfig.getRange().setMaxDays(7);
+
+        //WHEN
+        ResponseStatusException actual = assertThrows(ResponseStatusException.class,
+            () -> dataService.getRates("2021-09-01:2021-09-09"));
+
+        //THEN
+        assertEquals(HttpStatus.BAD_REQUEST, actual.getStatus());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void getRates_whenRangeInverted() {
+        //WHEN
+        ResponseStatusException actual = assertThrows(ResponseStatusException.class,
+            () -> dataService.getRates("2021-09-08:2021-09-01"));
+
+        //THEN
+        assertEquals(HttpStatus.BAD_REQUEST, actual.getStatus());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void getRates_whenSymbolsAndBase() {
+        //GIVEN
+        LocalDate day = LocalDate.parse("2021-09-05");
+        List<RateRow> rows = List.of(
+            new RateRow("GBP", new BigDecimal("0.85"), day),
+            new RateRow("USD", new BigDecimal("1.7"), day));
+
+        doReturn("EUR").when(propertyConfig).getBase();
+        doReturn(rows).when(repository).findRows(eq(LocalDate.parse("2021-09-04")), eq(LocalDate.parse("2021-09-06")),
+            eq(Set.of("GBP", "USD")), isNull(), isNull(), eq(0));
+
+        List<RateDTO> expected = List.of(new RateDTO("GBP", new BigDecimal("0.50000"), "2021-09-05"));
+
+        //WHEN
+        List<RateDTO> actual = dataService.getRates("2021-09-05", "gbp", "USD");
+
+        //THEN
+        assertEquals(expected, actual);
+        verify(repository, never()).findRowsByDate(any());
+    }
+
+    @Test
+    void getRatesPage() {
+        //GIVEN
+        LocalDate day = LocalDate.parse("2021-09-05");
+        List<RateRow> rows = List.of(
+            new RateRow("GBP", BigDecimal.ONE, day),
+            new RateRow("USD", BigDecimal.TEN, day));
+
+        doReturn(rows).when(repository).findRows(eq(LocalDate.parse("2021-09-01")), eq(LocalDate.parse("2021-09-08")),
+            isNull(), eq(LocalDate.parse("2021-09-04")), eq("USD"), eq(2));
+
+        //WHEN
+        RatePage actual = dataService.getRatesPage("2021-09-01:2021-09-08", null, null, "2021-09-04:USD", 2);
+
+        //THEN
+        assertEquals(2, actual.getRates().size());
+        assertEquals("2021-09-05:USD", actual.getNext());
+    }
+
+    @Test
+    void getRates_whenDateMalformed() {
+        //WHEN
+        ResponseStatusException actual = assertThrows(ResponseStatusException.class,
+            () -> dataService.getRates("2021-09-01:2021-09-32"));
+
+        //THEN
+        assertEquals(HttpStatus.BAD_REQUEST, actual.getStatus());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void getRates_whenSeriesStoreReady() {
+        //GIVEN
+        rateSeriesStore.putAll(List.of(new Rate("USD", BigDecimal.ONE, LocalDate.parse("2021-09-05"))));
+        rateSeriesStore.markReady();
+
+        List<RateDTO> expected = List.of(new RateDTO("USD", new BigDecimal("1.00000"), "2021-09-05"));
+
+        //WHEN
+        List<RateDTO> actual = dataService.getRates("2021-09-01:2021-09-08");
+
+        //THEN
+        assertEquals(expected, actual);
+        verifyNoInteractions(repository);
     }
 
-    private ResponseEntity<String> createResponse() {
-        Gson gson = new Gson();
+    private RatesResponse createResponse() {
         RatesResponse rateResponse = new RatesResponse();
-        rateResponse.setDate(new Date());
+        rateResponse.setDate(LocalDate.now());
         rateResponse.setBase("EUR");
         rateResponse.setSuccess(true);
         rateResponse.setTimestamp(11111);
         rateResponse.setRates(Map.of("USD", BigDecimal.ONE));
 
-        return new ResponseEntity<>(gson.toJson(rateResponse), HttpStatus.OK);
+        return rateResponse;
     }
-}
\ No newline at end of file
+}
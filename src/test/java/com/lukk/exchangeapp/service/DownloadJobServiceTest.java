@@ -0,0 +1,138 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.dto.DownloadJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DownloadJobServiceTest {
+
+    private DataService dataService;
+    private PropertyConfig propertyConfig;
+
+    @BeforeEach
+    public void setup() {
+        dataService = mock(DataService.class);
+        propertyConfig = new PropertyConfig();
+        propertyConfig.getDownload().setMaxFinishedJobs(1);
+    }
+
+    @Test
+    void submit() {
+        //GIVEN
+        DownloadJobService downloadJobService = new DownloadJobService(dataService, Runnable::run, propertyConfig);
+        doReturn(3).when(dataService).downloadData();
+
+        //WHEN
+        DownloadJob actual = downloadJobService.submit();
+
+        //THEN
+        assertEquals(DownloadJob.Status.SUCCEEDED, actual.getStatus());
+        assertEquals(3, actual.getSavedRates());
+        assertNotNull(actual.getFinishedAt());
+        assertSame(actual, downloadJobService.getJob(actual.getId()).orElseThrow());
+    }
+
+    @Test
+    void submit_whenDownloadFails() {
+        //GIVEN
+        DownloadJobService downloadJobService = new DownloadJobService(dataService, Runnable::run, propertyConfig);
+        doThrow(new IllegalStateException("upstream down")).when(dataService).downloadData();
+
+        //WHEN
+        DownloadJob actual = downloadJobService.submit();
+
+        //THEN
+        assertEquals(DownloadJob.Status.FAILED, actual.getStatus());
+        assertEquals("upstream down", actual.getError());
+    }
+
+    @Test
+    void completion_whenJobQueued() {
+        //GIVEN
+        List<Runnable> queued = new ArrayList<>();
+        DownloadJobService downloadJobService = new DownloadJobService(dataService, queued::add, propertyConfig);
+        doReturn(3).when(dataService).downloadData();
+        DownloadJob job = downloadJobService.submit();
+
+        //WHEN
+        CompletableFuture<DownloadJob> actual = downloadJobService.completion(job);
+
+        //THEN
+        assertFalse(actual.isDone());
+        queued.forEach(Runnable::run);
+        assertSame(job, actual.getNow(null));
+        assertEquals(DownloadJob.Status.SUCCEEDED, job.getStatus());
+    }
+
+    @Test
+    void submit_whenQueueFull() {
+        //GIVEN
+        Executor rejecting = task -> {
+            throw new TaskRejectedException("full");
+        };
+        DownloadJobService downloadJobService = new DownloadJobService(dataService, rejecting, propertyConfig);
+
+        //WHEN
+        ResponseStatusException actual = assertThrows(ResponseStatusException.class, downloadJobService::submit);
+
+        //THEN
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, actual.getStatus());
+    }
+
+    @Test
+    void getJob_whenFinishedJobsOverLimit() {
+        //GIVEN
+        DownloadJobService downloadJobService = new DownloadJobService(dataService, Runnable::run, propertyConfig);
+        DownloadJob first = downloadJobService.submit();
+
+        //WHEN
+        DownloadJob second = downloadJobService.submit();
+
+        //THEN
+        assertTrue(downloadJobService.getJob(first.getId()).isEmpty());
+        assertTrue(downloadJobService.getJob(second.getId()).isPresent());
+    }
+
+    @Test
+    void submit_whenSameDownloadInFlight() {
+        //GIVEN
+        List<Runnable> queued = new ArrayList<>();
+        DownloadJobService downloadJobService = new DownloadJobService(dataService, queued::add, propertyConfig);
+        DownloadJob first = downloadJobService.submit();
+
+        //WHEN
+        DownloadJob second = downloadJobService.submit();
+
+        //THEN
+        assertSame(first, second);
+        assertEquals(1, queued.size());
+    }
+
+    @Test
+    void submit_whenPreviousDownloadFinished() {
+        //GIVEN
+        List<Runnable> queued = new ArrayList<>();
+        DownloadJobService downloadJobService = new DownloadJobService(dataService, queued::add, propertyConfig);
+        DownloadJob first = downloadJobService.submit();
+        queued.get(0).run();
+
+        //WHEN
+        DownloadJob second = downloadJobService.submit();
+
+        //THEN
+        assertNotSame(first, second);
+        assertEquals(2, queued.size());
+    }
+}
@@ -0,0 +1,180 @@
+package com.lukk.exchangeapp.service;
+
+import com.google.gson.Gson;
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.dto.RatesResponse;
+import com.lukk.exchangeapp.entity.Rate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.*;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles({"test"})
+class ExchangeClientTest {
+
+    @Mock
+    RestTemplate rest;
+
+    @Mock
+    PropertyConfig propertyConfig;
+
+    @Spy
+    RateMetrics rateMetrics = new RateMetrics(new SimpleMeterRegistry());
+
+    @Spy
+    UpstreamCache upstreamCache = new UpstreamCache(16);
+
+    @InjectMocks
+    ExchangeClient exchangeClient;
+
+    @BeforeEach
+    public void setup() {
+        doReturn("http://test.url/latest").when(propertyConfig).getUrl();
+        doReturn("http://test.url").when(propertyConfig).getHistoryUrl();
+        doReturn("testKey").when(propertyConfig).getAccessKey();
+        doReturn("testSymbols").when(propertyConfig).getSymbols();
+        doReturn("testBase").when(propertyConfig).getBase();
+    }
+
+    @Test
+    void getLatest() {
+        //GIVEN
+        HttpEntity<String> entity = createEntity();
+        ResponseEntity<String> response = createResponse();
+        String url = "http://test.url/latest?access_key=testKey&symbols=testSymbols&base=testBase";
+
+        doReturn(response).when(rest).exchange(eq(url), eq(HttpMethod.GET), eq(entity), eq(String.class));
+
+        //WHEN
+        RatesResponse actual = exchangeClient.getLatest();
+
+        //THEN
+        assertEquals(Map.of("USD", BigDecimal.ONE), actual.getRates());
+    }
+
+    @Test
+    void getHistorical() {
+        //GIVEN
+        HttpEntity<String> entity = createEntity();
+        ResponseEntity<String> response = createResponse();
+        String url = "http://test.url/2021-09-05?access_key=testKey&symbols=testSymbols&base=testBase";
+
+        doReturn(response).when(rest).exchange(eq(url), eq(HttpMethod.GET), eq(entity), eq(String.class));
+
+        //WHEN
+        RatesResponse actual = exchangeClient.getHistorical(LocalDate.of(2021, 9, 5));
+
+        //THEN
+        assertEquals(Map.of("USD", BigDecimal.ONE), actual.getRates());
+    }
+
+    @Test
+    void getLatest_whenNotModified() {
+        //GIVEN
+        String url = "http://test.url/latest?access_key=testKey&symbols=testSymbols&base=testBase";
+        ResponseEntity<String> response = ResponseEntity.ok().eTag("\"v1\"").body(createResponse().getBody());
+        HttpEntity<String> conditional = createEntity("\"v1\"");
+
+        doReturn(response).when(rest).exchange(eq(url), eq(HttpMethod.GET), eq(createEntity()), eq(String.class));
+        doReturn(new ResponseEntity<String>(HttpStatus.NOT_MODIFIED))
+            .when(rest).exchange(eq(url), eq(HttpMethod.GET), eq(conditional), eq(String.class));
+        RatesResponse first = exchangeClient.getLatest();
+
+        //WHEN
+        RatesResponse actual = exchangeClient.getLatest();
+
+        //THEN
+        assertSame(first, actual);
+        verify(rest).exchange(eq(url), eq(HttpMethod.GET), eq(conditional), eq(String.class));
+        verify(rateMetrics, times(1)).timeParse(any());
+    }
+
+    @Test
+    void getLatest_whenPayloadUnchanged() {
+        //GIVEN
+        ResponseEntity<String> response = createResponse();
+        String url = "http://test.url/latest?access_key=testKey&symbols=testSymbols&base=testBase";
+
+        doReturn(response).when(rest).exchange(eq(url), eq(HttpMethod.GET), any(), eq(String.class));
+        RatesResponse first = exchangeClient.getLatest();
+
+        //WHEN
+        RatesResponse actual = exchangeClient.getLatest();
+
+        //THEN
+        assertSame(first, actual);
+        verify(rateMetrics, times(1)).timeParse(any());
+    }
+
+    @Test
+    void streamLatest_whenNotModified() {
+        //GIVEN
+        String url = "http://test.url/latest?access_key=testKey&symbols=testSymbols&base=testBase";
+        MockClientHttpResponse modified = new MockClientHttpResponse(
+            createResponse().getBody().getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+        modified.getHeaders().setETag("\"v1\"");
+        MockClientHttpResponse notModified = new MockClientHttpResponse(new byte[0], HttpStatus.NOT_MODIFIED);
+
+        doAnswer(invocation -> invocation.<ResponseExtractor<Integer>>getArgument(3).extractData(modified))
+            .doAnswer(invocation -> invocation.<ResponseExtractor<Integer>>getArgument(3).extractData(notModified))
+            .when(rest).execute(eq(url), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class));
+        List<Rate> rates = new ArrayList<>();
+        int first = exchangeClient.streamLatest(50, rates::addAll);
+
+        //WHEN
+        int actual = exchangeClient.streamLatest(50, rates::addAll);
+
+        //THEN
+        assertEquals(1, first);
+        assertEquals(0, actual);
+        assertEquals(List.of(new Rate("USD", BigDecimal.ONE, LocalDate.now())), rates);
+        verify(rateMetrics, times(1)).recordParse(anyLong());
+    }
+
+    private HttpEntity<String> createEntity(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.setIfNoneMatch(etag);
+        return new HttpEntity<>(headers);
+    }
+
+    private HttpEntity<String> createEntity() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        return new HttpEntity<>(headers);
+    }
+
+    private ResponseEntity<String> createResponse() {
+        Gson gson = new Gson();
+        RatesResponse rateResponse = new RatesResponse();
+        rateResponse.setDate(LocalDate.now());
+        rateResponse.setBase("EUR");
+        rateResponse.setSuccess(true);
+        rateResponse.setTimestamp(11111);
+        rateResponse.setRates(Map.of("USD", BigDecimal.ONE));
+
+        return new ResponseEntity<>(gson.toJson(rateResponse), HttpStatus.OK);
+    }
+}
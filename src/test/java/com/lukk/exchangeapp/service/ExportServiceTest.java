@@ -0,0 +1,132 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ExportServiceTest {
+
+    private static final String CSV = "date,currency,value\n2021-09-05,USD,1.00000\n";
+    private static final DateRange CLOSED_RANGE = DateRange.parse("2021-08-31:2021-10-01");
+
+    @TempDir
+    Path cacheDir;
+
+    private RateStreamService rateStreamService;
+    private ExportService exportService;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        rateStreamService = mock(RateStreamService.class);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write(CSV.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(rateStreamService).writeRates(any(), any(ExportFormat.class), any());
+
+        PropertyConfig propertyConfig = new PropertyConfig();
+        propertyConfig.getExport().setCacheDir(cacheDir.toString());
+        exportService = new ExportService(rateStreamService, propertyConfig);
+    }
+
+    @Test
+    void export_whenClosedRange() throws IOException {
+        //GIVEN
+        exportService.export(CLOSED_RANGE, ExportFormat.CSV, new ByteArrayOutputStream());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //WHEN
+        exportService.export(CLOSED_RANGE, ExportFormat.CSV, outputStream);
+
+        //THEN
+        assertEquals(CSV, outputStream.toString(StandardCharsets.UTF_8));
+        assertTrue(Files.exists(cacheDir.resolve("2021-09-01_2021-09-30.csv")));
+        verify(rateStreamService, times(1)).writeRates(eq(CLOSED_RANGE), eq(ExportFormat.CSV), any());
+    }
+
+    @Test
+    void export_whenRangeIncludesToday() throws IOException {
+        //GIVEN
+        DateRange openRange = DateRange.parse(LocalDate.now().minusDays(3) + ":" + LocalDate.now().plusDays(1));
+
+        //WHEN
+        exportService.export(openRange, ExportFormat.CSV, new ByteArrayOutputStream());
+        exportService.export(openRange, ExportFormat.CSV, new ByteArrayOutputStream());
+
+        //THEN
+        verify(rateStreamService, times(2)).writeRates(eq(openRange), eq(ExportFormat.CSV), any());
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void export_whenRangeNotWholePeriod() throws IOException {
+        //GIVEN
+        DateRange range = DateRange.parse("2021-09-01:2021-09-08");
+
+        //WHEN
+        exportService.export(range, ExportFormat.CSV, new ByteArrayOutputStream());
+        exportService.export(range, ExportFormat.CSV, new ByteArrayOutputStream());
+
+        //THEN
+        verify(rateStreamService, times(2)).writeRates(eq(range), eq(ExportFormat.CSV), any());
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void export_whenWholeYear() throws IOException {
+        //WHEN
+        exportService.export(DateRange.parse("2019-12-31:2021-01-01"), ExportFormat.BINARY,
+            new ByteArrayOutputStream());
+
+        //THEN
+        assertTrue(Files.exists(cacheDir.resolve("2020-01-01_2020-12-31.bin")));
+    }
+
+    @Test
+    void deleteTemporaryCacheDir() throws IOException {
+        //GIVEN
+        ExportService temporary = new ExportService(rateStreamService, new PropertyConfig());
+        temporary.export(CLOSED_RANGE, ExportFormat.CSV, new ByteArrayOutputStream());
+
+        //WHEN
+        temporary.deleteTemporaryCacheDir();
+
+        //THEN
+        assertFalse(Files.exists(temporary.getCacheDir()));
+    }
+
+    @Test
+    void onRatesSaved_evictsRangesWithSavedDay() throws IOException {
+        //GIVEN
+        exportService.export(CLOSED_RANGE, ExportFormat.CSV, new ByteArrayOutputStream());
+        exportService.export(DateRange.parse("2021-07-31:2021-09-01"), ExportFormat.CSV, new ByteArrayOutputStream());
+
+        //WHEN
+        exportService.onRatesSaved(new RatesSavedEvent(LocalDate.of(2021, 9, 5), List.of()));
+
+        //THEN
+        assertFalse(Files.exists(cacheDir.resolve("2021-09-01_2021-09-30.csv")));
+        assertTrue(Files.exists(cacheDir.resolve("2021-08-01_2021-08-31.csv")));
+    }
+}
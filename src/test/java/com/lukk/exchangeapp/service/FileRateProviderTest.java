@@ -0,0 +1,98 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.dto.RatesResponse;
+import com.lukk.exchangeapp.entity.Rate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileRateProviderTest {
+
+    @TempDir
+    Path stubDir;
+
+    private PropertyConfig propertyConfig;
+    private FileRateProvider fileRateProvider;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        propertyConfig = new PropertyConfig();
+        propertyConfig.getStub().setDir(stubDir.toString());
+        fileRateProvider = new FileRateProvider(propertyConfig, new RateMetrics(new SimpleMeterRegistry()));
+
+        Files.writeString(stubDir.resolve(FileRateProvider.LATEST_FILE),
+            "{\"success\":true,\"base\":\"EUR\",\"date\":\"2021-09-05\",\"rates\":{\"USD\":1.18}}");
+    }
+
+    @Test
+    void getLatest() {
+        //WHEN
+        RatesResponse actual = fileRateProvider.getLatest();
+
+        //THEN
+        assertEquals(Map.of("USD", new BigDecimal("1.18")), actual.getRates());
+        assertEquals(LocalDate.of(2021, 9, 5), actual.getDate());
+    }
+
+    @Test
+    void streamLatest() {
+        //GIVEN
+        List<Rate> rates = new ArrayList<>();
+
+        //WHEN
+        int actual = fileRateProvider.streamLatest(50, rates::addAll);
+
+        //THEN
+        assertEquals(1, actual);
+        assertEquals(List.of(new Rate("USD", new BigDecimal("1.18"), LocalDate.of(2021, 9, 5))), rates);
+    }
+
+    @Test
+    void getHistorical() throws IOException {
+        //GIVEN
+        Files.writeString(stubDir.resolve("2021-09-01.json"),
+            "{\"success\":true,\"base\":\"EUR\",\"date\":\"2021-09-01\",\"rates\":{\"USD\":1.1}}");
+
+        //WHEN
+        RatesResponse actual = fileRateProvider.getHistorical(LocalDate.of(2021, 9, 1));
+
+        //THEN
+        assertEquals(Map.of("USD", new BigDecimal("1.1")), actual.getRates());
+    }
+
+    @Test
+    void getHistorical_whenDayFileMissing() {
+        //WHEN
+        RatesResponse actual = fileRateProvider.getHistorical(LocalDate.of(2021, 8, 1));
+
+        //THEN
+        assertEquals(LocalDate.of(2021, 8, 1), actual.getDate());
+        assertEquals(Map.of("USD", new BigDecimal("1.18")), actual.getRates());
+    }
+
+    @Test
+    void getLatest_whenStubMissing() {
+        //GIVEN
+        propertyConfig.getStub().setDir(stubDir.resolve("missing").toString());
+
+        //WHEN
+        UncheckedIOException actual = assertThrows(UncheckedIOException.class, fileRateProvider::getLatest);
+
+        //THEN
+        assertTrue(actual.getMessage().contains(FileRateProvider.LATEST_FILE));
+    }
+}
@@ -0,0 +1,173 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IngestionSchedulerTest {
+
+    private static final Instant NOW = Instant.parse("2021-09-06T10:00:00Z");
+    private static final LocalDate TODAY = LocalDate.of(2021, 9, 6);
+
+    private DataService dataService;
+    private TaskScheduler taskScheduler;
+    private PropertyConfig.Ingestion config;
+
+    @BeforeEach
+    public void setup() {
+        dataService = mock(DataService.class);
+        taskScheduler = mock(TaskScheduler.class);
+        config = new PropertyConfig.Ingestion();
+        config.setJitter(Duration.ZERO);
+    }
+
+    @Test
+    void run() {
+        //GIVEN
+        doReturn(TODAY.minusDays(1)).when(dataService).getLatestStoredDay();
+        doReturn(3).when(dataService).downloadData();
+
+        //WHEN
+        boolean actual = scheduler().run();
+
+        //THEN
+        assertTrue(actual);
+        verify(dataService).downloadData();
+    }
+
+    @Test
+    void run_whenAlreadyCurrent() {
+        //GIVEN
+        doReturn(TODAY).when(dataService).getLatestStoredDay();
+
+        //WHEN
+        boolean actual = scheduler().run();
+
+        //THEN
+        assertFalse(actual);
+        verify(dataService, never()).downloadData();
+    }
+
+    @Test
+    void run_whenWeekendAndLastBusinessDayFetched() {
+        //GIVEN
+        IngestionScheduler scheduler = scheduler(Instant.parse("2021-09-11T10:00:00Z"));
+        doReturn(LocalDate.of(2021, 9, 10)).when(dataService).getLatestStoredDay();
+        scheduler.run();
+
+        //WHEN
+        boolean actual = scheduler.run();
+
+        //THEN
+        assertFalse(actual);
+        verify(dataService, times(1)).downloadData();
+    }
+
+    @Test
+    void run_whenWeekdayRatesNotPublishedYet() {
+        //GIVEN
+        IngestionScheduler scheduler = scheduler();
+        doReturn(TODAY.minusDays(3)).when(dataService).getLatestStoredDay();
+        scheduler.run();
+
+        //WHEN
+        boolean actual = scheduler.run();
+
+        //THEN
+        assertTrue(actual);
+        verify(dataService, times(2)).downloadData();
+    }
+
+    @Test
+    void nextRun_whenDownloadFails() {
+        //GIVEN
+        IngestionScheduler scheduler = scheduler();
+        doThrow(new IllegalStateException("upstream down")).when(dataService).downloadData();
+        scheduler.run();
+        scheduler.run();
+
+        //WHEN
+        Instant actual = scheduler.nextRun(NOW);
+
+        //THEN
+        assertEquals(2, scheduler.getFailures());
+        assertEquals(NOW.plus(Duration.ofMinutes(2)), actual);
+    }
+
+    @Test
+    void nextRun_whenBackoffExceedsInterval() {
+        //GIVEN
+        config.setInterval(Duration.ofMinutes(5));
+        IngestionScheduler scheduler = scheduler();
+        doThrow(new IllegalStateException("upstream down")).when(dataService).downloadData();
+        for (int i = 0; i < 4; i++) {
+            scheduler.run();
+        }
+
+        //WHEN
+        Instant actual = scheduler.nextRun(NOW);
+
+        //THEN
+        assertEquals(NOW.plus(Duration.ofMinutes(5)), actual);
+    }
+
+    @Test
+    void nextRun_whenCron() {
+        //GIVEN
+        config.setCron("0 0 16 * * MON-FRI");
+
+        //WHEN
+        Instant actual = scheduler().nextRun(NOW);
+
+        //THEN
+        assertEquals(Instant.parse("2021-09-06T16:00:00Z"), actual);
+    }
+
+    @Test
+    void nextRun_withJitter() {
+        //GIVEN
+        config.setJitter(Duration.ofSeconds(30));
+
+        //WHEN
+        Instant actual = scheduler().nextRun(NOW);
+
+        //THEN
+        Instant regular = NOW.plus(config.getInterval());
+        assertFalse(actual.isBefore(regular));
+        assertFalse(actual.isAfter(regular.plusSeconds(30)));
+    }
+
+    @Test
+    void start() {
+        //WHEN
+        scheduler().start();
+
+        //THEN
+        verify(taskScheduler).schedule(any(Runnable.class), eq(NOW.plus(config.getInitialDelay())));
+    }
+
+    private IngestionScheduler scheduler() {
+        return scheduler(NOW);
+    }
+
+    private IngestionScheduler scheduler(Instant now) {
+        DownloadJobService downloadJobService =
+            new DownloadJobService(dataService, Runnable::run, new PropertyConfig());
+        return new IngestionScheduler(dataService, downloadJobService, taskScheduler, config,
+            Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,78 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.entity.Rate;
+import com.lukk.exchangeapp.repository.DataRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class JdbcRateWriterTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    DataRepository dataRepository;
+
+    @Test
+    void write() {
+        //GIVEN
+        PropertyConfig propertyConfig = new PropertyConfig();
+        propertyConfig.getWriter().setBatchSize(2);
+        JdbcRateWriter rateWriter = new JdbcRateWriter(jdbcTemplate, propertyConfig);
+
+        LocalDate date = LocalDate.now();
+        List<Rate> rates = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rates.add(new Rate("C" + i, BigDecimal.valueOf(i), date));
+        }
+
+        //WHEN
+        rateWriter.write(rates);
+
+        //THEN
+        assertEquals(5, dataRepository.findAllByDate(date).size());
+    }
+
+    @Test
+    void write_withJpaSavedRates() {
+        //GIVEN
+        PropertyConfig propertyConfig = new PropertyConfig();
+        JdbcRateWriter rateWriter = new JdbcRateWriter(jdbcTemplate, propertyConfig);
+        LocalDate date = LocalDate.now();
+        dataRepository.saveAndFlush(new Rate("USD", BigDecimal.ONE, date));
+
+        //WHEN
+        rateWriter.write(List.of(new Rate("GBP", BigDecimal.TEN, date)));
+
+        //THEN
+        assertEquals(2, dataRepository.findAllByDate(date).size());
+    }
+
+    @Test
+    void write_whenAlreadyStored() {
+        //GIVEN
+        PropertyConfig propertyConfig = new PropertyConfig();
+        JdbcRateWriter rateWriter = new JdbcRateWriter(jdbcTemplate, propertyConfig);
+        LocalDate date = LocalDate.now();
+        rateWriter.write(List.of(new Rate("USD", BigDecimal.ONE, date)));
+
+        //WHEN
+        rateWriter.write(List.of(new Rate("USD", BigDecimal.TEN, date)));
+
+        //THEN
+        List<Rate> actual = dataRepository.findAllByDate(date);
+        assertEquals(1, actual.size());
+        assertEquals(0, BigDecimal.TEN.compareTo(actual.get(0).getValue()));
+    }
+}
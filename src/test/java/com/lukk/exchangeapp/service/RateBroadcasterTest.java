@@ -0,0 +1,190 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.dto.RateDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateBroadcasterTest {
+
+    private static final LocalDate DAY = LocalDate.of(2021, 9, 5);
+    private static final RatesSavedEvent EVENT = new RatesSavedEvent(DAY, List.of(
+        new RateDTO("USD", new BigDecimal("1.2"), DAY.toString()),
+        new RateDTO("GBP", new BigDecimal("0.8"), DAY.toString())));
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private PropertyConfig propertyConfig;
+
+    @BeforeEach
+    public void setup() {
+        propertyConfig = new PropertyConfig();
+        propertyConfig.setBase("EUR");
+        tasks.clear();
+    }
+
+    @Test
+    void onRatesSaved() {
+        //GIVEN
+        RateBroadcaster rateBroadcaster = new RateBroadcaster(Runnable::run, propertyConfig, metrics());
+        RecordingEmitter all = new RecordingEmitter();
+        RecordingEmitter gbp = new RecordingEmitter();
+        RecordingEmitter hkd = new RecordingEmitter();
+        rateBroadcaster.register(all, null);
+        rateBroadcaster.register(gbp, "gbp");
+        rateBroadcaster.register(hkd, "HKD");
+
+        //WHEN
+        rateBroadcaster.onRatesSaved(EVENT);
+
+        //THEN
+        assertEquals(1, all.sent);
+        assertEquals(1, gbp.sent);
+        assertEquals(0, hkd.sent);
+    }
+
+    @Test
+    void onRatesSaved_whenSubscriberTooSlow() {
+        //GIVEN
+        propertyConfig.getSubscriptions().setBufferSize(1);
+        RateBroadcaster rateBroadcaster = new RateBroadcaster(tasks::add, propertyConfig, metrics());
+        RecordingEmitter slow = new RecordingEmitter();
+        rateBroadcaster.register(slow, null);
+        rateBroadcaster.onRatesSaved(EVENT);
+
+        //WHEN
+        rateBroadcaster.onRatesSaved(EVENT);
+
+        //THEN
+        assertTrue(slow.completed);
+        assertEquals(0, rateBroadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void onRatesSaved_whenSendFails() {
+        //GIVEN
+        RateBroadcaster rateBroadcaster = new RateBroadcaster(Runnable::run, propertyConfig, metrics());
+        RecordingEmitter disconnected = new RecordingEmitter();
+        disconnected.failing = true;
+        RecordingEmitter connected = new RecordingEmitter();
+        rateBroadcaster.register(disconnected, null);
+        rateBroadcaster.register(connected, null);
+
+        //WHEN
+        rateBroadcaster.onRatesSaved(EVENT);
+
+        //THEN
+        assertEquals(1, connected.sent);
+        assertFalse(connected.completed);
+        assertEquals(1, rateBroadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void dropStalledSubscribers() throws InterruptedException {
+        //GIVEN
+        propertyConfig.getSubscriptions().setSendTimeout(Duration.ofMillis(10));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        RateBroadcaster rateBroadcaster = new RateBroadcaster(executor, propertyConfig, metrics());
+        BlockingEmitter stalled = new BlockingEmitter();
+        RecordingEmitter healthy = new RecordingEmitter();
+        rateBroadcaster.register(stalled, null);
+        rateBroadcaster.onRatesSaved(EVENT);
+        assertTrue(stalled.sending.await(5, TimeUnit.SECONDS));
+        rateBroadcaster.register(healthy, null);
+        rateBroadcaster.onRatesSaved(EVENT);
+        Thread.sleep(50);
+
+        //WHEN
+        rateBroadcaster.dropStalledSubscribers();
+
+        //THEN
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(1, healthy.sent);
+        assertFalse(healthy.completed);
+        assertEquals(1, rateBroadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void register_whenTooManySubscribers() {
+        //GIVEN
+        propertyConfig.getSubscriptions().setMaxSubscribers(1);
+        RateBroadcaster rateBroadcaster = new RateBroadcaster(Runnable::run, propertyConfig, metrics());
+        rateBroadcaster.register(new RecordingEmitter(), null);
+
+        //WHEN
+        ResponseStatusException actual = assertThrows(ResponseStatusException.class,
+            () -> rateBroadcaster.register(new RecordingEmitter(), null));
+
+        //THEN
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, actual.getStatus());
+    }
+
+    private static RateMetrics metrics() {
+        return new RateMetrics(new SimpleMeterRegistry());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private int sent;
+        private boolean failing;
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            sent++;
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+            super.complete();
+        }
+    }
+
+    /**
+     * Emitter which send blocks like write to stalled client, until emitter is completed.
+     */
+    private static class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                closed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Connection closed");
+        }
+
+        @Override
+        public synchronized void complete() {
+            closed.countDown();
+            super.complete();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.RateDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2021, 9, 5);
+    private static final List<RateDTO> RATES = List.of(new RateDTO("USD", BigDecimal.ONE, "2021-09-05"));
+
+    @Test
+    void get_whenCached() {
+        //GIVEN
+        RateCache rateCache = new RateCache(10, Duration.ofHours(1), Clock.systemDefaultZone());
+        rateCache.put(DAY, RATES);
+
+        //WHEN
+        List<RateDTO> actual = rateCache.get(DAY);
+
+        //THEN
+        assertEquals(RATES, actual);
+    }
+
+    @Test
+    void get_whenExpired() {
+        //GIVEN
+        RateCache rateCache = new RateCache(10, Duration.ZERO, Clock.systemDefaultZone());
+        rateCache.put(DAY, RATES);
+
+        //WHEN
+        List<RateDTO> actual = rateCache.get(DAY);
+
+        //THEN
+        assertNull(actual);
+        assertEquals(0, rateCache.size());
+    }
+
+    @Test
+    void put_whenFull_evictsLeastRecentlyUsed() {
+        //GIVEN
+        RateCache rateCache = new RateCache(2, Duration.ofHours(1), Clock.systemDefaultZone());
+        rateCache.put(DAY, RATES);
+        rateCache.put(DAY.plusDays(1), RATES);
+        rateCache.get(DAY);
+
+        //WHEN
+        rateCache.put(DAY.plusDays(2), RATES);
+
+        //THEN
+        assertEquals(2, rateCache.size());
+        assertEquals(RATES, rateCache.get(DAY));
+        assertNull(rateCache.get(DAY.plusDays(1)));
+    }
+
+    @Test
+    void evictBefore() {
+        //GIVEN
+        RateCache rateCache = new RateCache(10, Duration.ofHours(1), Clock.systemDefaultZone());
+        rateCache.put(DAY.minusDays(1), RATES);
+        rateCache.put(DAY, RATES);
+
+        //WHEN
+        rateCache.evictBefore(DAY);
+
+        //THEN
+        assertNull(rateCache.get(DAY.minusDays(1)));
+        assertEquals(RATES, rateCache.get(DAY));
+    }
+
+    @Test
+    void get_whenCurrenciesCached() {
+        //GIVEN
+        RateCache rateCache = new RateCache(10, Duration.ofHours(1), Clock.systemDefaultZone());
+        rateCache.put(DAY, Set.of("USD"), RATES);
+
+        //WHEN
+        List<RateDTO> actual = rateCache.get(DAY, Set.of("USD"));
+
+        //THEN
+        assertEquals(RATES, actual);
+        assertNull(rateCache.get(DAY));
+        assertNull(rateCache.get(DAY, Set.of("GBP")));
+    }
+
+    @Test
+    void get_whenAllCurrenciesCached() {
+        //GIVEN
+        RateCache rateCache = new RateCache(10, Duration.ofHours(1), Clock.systemDefaultZone());
+        RateDTO gbp = new RateDTO("GBP", BigDecimal.TEN, "2021-09-05");
+        rateCache.put(DAY, List.of(RATES.get(0), gbp));
+
+        //WHEN
+        List<RateDTO> actual = rateCache.get(DAY, Set.of("GBP"));
+
+        //THEN
+        assertEquals(List.of(gbp), actual);
+    }
+
+    @Test
+    void put_whenAllCurrencies_replacesCurrencyEntries() {
+        //GIVEN
+        RateCache rateCache = new RateCache(10, Duration.ofHours(1), Clock.systemDefaultZone());
+        rateCache.put(DAY, Set.of("USD"), RATES);
+        List<RateDTO> updated = List.of(new RateDTO("USD", BigDecimal.TEN, "2021-09-05"));
+
+        //WHEN
+        rateCache.put(DAY, updated);
+
+        //THEN
+        assertEquals(1, rateCache.size());
+        assertEquals(updated, rateCache.get(DAY, Set.of("USD")));
+    }
+}
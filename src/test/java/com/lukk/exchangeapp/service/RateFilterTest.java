@@ -0,0 +1,62 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.RateDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateFilterTest {
+
+    private static final List<RateDTO> RATES = List.of(
+        new RateDTO("GBP", new BigDecimal("0.8"), "2021-09-04"),
+        new RateDTO("USD", new BigDecimal("1.6"), "2021-09-04"),
+        new RateDTO("GBP", new BigDecimal("0.9"), "2021-09-05"));
+
+    @Test
+    void of_whenNoParameters() {
+        //WHEN
+        RateFilter actual = RateFilter.of(null, "eur", "EUR");
+
+        //THEN
+        assertSame(RateFilter.ALL, actual);
+        assertSame(RATES, actual.apply(RATES));
+    }
+
+    @Test
+    void getQuerySymbols() {
+        //WHEN
+        RateFilter actual = RateFilter.of(" gbp,HKD ", "usd", "EUR");
+
+        //THEN
+        assertEquals(Set.of("GBP", "HKD"), actual.getSymbols());
+        assertEquals(Set.of("GBP", "HKD", "USD"), actual.getQuerySymbols());
+    }
+
+    @Test
+    void apply_whenSymbols() {
+        //GIVEN
+        RateFilter rateFilter = RateFilter.of("USD", null, "EUR");
+
+        //WHEN
+        List<RateDTO> actual = rateFilter.apply(RATES);
+
+        //THEN
+        assertEquals(List.of(RATES.get(1)), actual);
+    }
+
+    @Test
+    void apply_whenBase() {
+        //GIVEN
+        RateFilter rateFilter = RateFilter.of("GBP", "USD", "EUR");
+
+        //WHEN
+        List<RateDTO> actual = rateFilter.apply(RATES);
+
+        //THEN
+        assertEquals(List.of(new RateDTO("GBP", new BigDecimal("0.50000"), "2021-09-04")), actual);
+    }
+}
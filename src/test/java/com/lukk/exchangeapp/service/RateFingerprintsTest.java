@@ -0,0 +1,142 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.RateDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateFingerprintsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2021, 9, 5);
+    private static final DateRange RANGE = DateRange.parse("2021-09-01:2021-09-08");
+
+    private RateFingerprints rateFingerprints;
+
+    @BeforeEach
+    public void setup() {
+        rateFingerprints = new RateFingerprints();
+    }
+
+    @Test
+    void etag_whenNotLoaded() {
+        //WHEN
+        String actual = rateFingerprints.etag(RANGE);
+
+        //THEN
+        assertNull(actual);
+    }
+
+    @Test
+    void etag_whenDayOfRangeSaved() {
+        //GIVEN
+        rateFingerprints.markReady();
+        String before = rateFingerprints.etag(RANGE);
+
+        //WHEN
+        rateFingerprints.onRatesSaved(event(DAY, "1.18"));
+
+        //THEN
+        assertNotEquals(before, rateFingerprints.etag(RANGE));
+    }
+
+    @Test
+    void etag_whenDayOutsideRangeSaved() {
+        //GIVEN
+        rateFingerprints.markReady();
+        String before = rateFingerprints.etag(RANGE);
+
+        //WHEN
+        rateFingerprints.onRatesSaved(event(DAY.plusDays(10), "1.18"));
+
+        //THEN
+        assertEquals(before, rateFingerprints.etag(RANGE));
+    }
+
+    @Test
+    void etag_whenSameRatesSavedAgain() {
+        //GIVEN
+        rateFingerprints.markReady();
+        rateFingerprints.onRatesSaved(event(DAY, "1.18"));
+        String before = rateFingerprints.etag(RANGE);
+
+        //WHEN
+        rateFingerprints.onRatesSaved(event(DAY, "1.18000"));
+
+        //THEN
+        assertEquals(before, rateFingerprints.etag(RANGE));
+        assertNotEquals(before, rateFingerprints.etag(RANGE, "GBP"));
+    }
+
+    @Test
+    void etag_whenDayPurged() {
+        //GIVEN
+        rateFingerprints.markReady();
+        String empty = rateFingerprints.etag(RANGE);
+        rateFingerprints.onRatesSaved(event(DAY, "1.18"));
+
+        //WHEN
+        rateFingerprints.onRatesPurged(new RatesPurgedEvent(DAY.plusDays(1)));
+
+        //THEN
+        assertEquals(empty, rateFingerprints.etag(RANGE));
+    }
+
+    @Test
+    void isComplete() {
+        //GIVEN
+        rateFingerprints.markReady();
+        DateRange range = DateRange.parse("2021-09-04:2021-09-07");
+        rateFingerprints.onRatesSaved(event(DAY, "1.18"));
+        boolean before = rateFingerprints.isComplete(range);
+
+        //WHEN
+        rateFingerprints.onRatesSaved(event(DAY.plusDays(1), "1.19"));
+
+        //THEN
+        assertFalse(before);
+        assertTrue(rateFingerprints.isComplete(range));
+    }
+
+    private static RatesSavedEvent event(LocalDate day, String value) {
+        return new RatesSavedEvent(day, List.of(new RateDTO("USD", new BigDecimal(value), day.toString())));
+    }
+
+    @Test
+    void etag_whenDaySavedConcurrently() throws InterruptedException {
+        //GIVEN
+        List<RateDTO> rates = IntStream.range(0, 200)
+            .mapToObj(i -> new RateDTO("C" + i, BigDecimal.valueOf(i), DAY.toString()))
+            .collect(Collectors.toList());
+        RateFingerprints sequential = new RateFingerprints();
+        sequential.onRatesSaved(new RatesSavedEvent(DAY, rates));
+        sequential.markReady();
+
+        rateFingerprints.markReady();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        //WHEN
+        for (RateDTO rate : rates) {
+            RatesSavedEvent event = new RatesSavedEvent(DAY, List.of(rate, rates.get(0)));
+            executor.execute(() -> rateFingerprints.onRatesSaved(event));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        //THEN
+        assertEquals(sequential.etag(RANGE), rateFingerprints.etag(RANGE));
+    }
+}
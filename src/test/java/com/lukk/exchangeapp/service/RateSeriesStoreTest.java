@@ -0,0 +1,84 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.RateDTO;
+import com.lukk.exchangeapp.entity.Rate;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateSeriesStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2021, 9, 5);
+
+    @Test
+    void getBetween() {
+        //GIVEN
+        RateSeriesStore rateSeriesStore = new RateSeriesStore(true);
+        rateSeriesStore.putAll(List.of(
+            new Rate("USD", new BigDecimal("1.18"), DAY),
+            new Rate("GBP", new BigDecimal("0.85"), DAY),
+            new Rate("USD", new BigDecimal("1.17"), DAY.minusDays(100)),
+            new Rate("USD", new BigDecimal("1.19"), DAY.plusDays(200))));
+
+        List<RateDTO> expected = List.of(
+            new RateDTO("USD", new BigDecimal("1.17000"), DAY.minusDays(100).toString()),
+            new RateDTO("USD", new BigDecimal("1.18000"), DAY.toString()),
+            new RateDTO("GBP", new BigDecimal("0.85000"), DAY.toString()));
+
+        //WHEN
+        List<RateDTO> actual = rateSeriesStore.getBetween(DAY.minusDays(101), DAY.plusDays(200));
+
+        //THEN
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void get_whenValueReplaced() {
+        //GIVEN
+        RateSeriesStore rateSeriesStore = new RateSeriesStore(true);
+        rateSeriesStore.putAll(List.of(new Rate("USD", BigDecimal.ONE, DAY)));
+        rateSeriesStore.putAll(List.of(new Rate("USD", BigDecimal.TEN, DAY)));
+
+        //WHEN
+        List<RateDTO> actual = rateSeriesStore.get(DAY);
+
+        //THEN
+        assertEquals(List.of(new RateDTO("USD", new BigDecimal("10.00000"), DAY.toString())), actual);
+    }
+
+    @Test
+    void removeBefore() {
+        //GIVEN
+        RateSeriesStore rateSeriesStore = new RateSeriesStore(true);
+        rateSeriesStore.putAll(List.of(
+            new Rate("USD", BigDecimal.ONE, DAY.minusDays(1)),
+            new Rate("USD", BigDecimal.TEN, DAY)));
+
+        //WHEN
+        rateSeriesStore.removeBefore(DAY);
+
+        //THEN
+        assertEquals(List.of(), rateSeriesStore.get(DAY.minusDays(1)));
+        assertEquals(1, rateSeriesStore.get(DAY).size());
+    }
+
+    @Test
+    void putAll_whenDisabled() {
+        //GIVEN
+        RateSeriesStore rateSeriesStore = new RateSeriesStore(false);
+
+        //WHEN
+        rateSeriesStore.putAll(List.of(new Rate("USD", BigDecimal.ONE, DAY)));
+        rateSeriesStore.markReady();
+
+        //THEN
+        assertFalse(rateSeriesStore.isReady());
+        assertTrue(rateSeriesStore.get(DAY).isEmpty());
+    }
+}
@@ -0,0 +1,149 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.entity.Rate;
+import com.lukk.exchangeapp.repository.DataRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class RateStreamServiceTest {
+
+    @Autowired
+    DataRepository dataRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void writeRates_whenRange() throws IOException {
+        //GIVEN
+        RateStreamService rateStreamService = new RateStreamService(dataRepository);
+        DateRange dateRange = DateRange.parse("2021-09-01:2021-09-08");
+
+        dataRepository.saveAll(List.of(
+            new Rate("USD", BigDecimal.TEN, dateRange.getStart().plusDays(4)),
+            new Rate("USD", BigDecimal.ONE, dateRange.getStart().plusDays(1)),
+            new Rate("USD", BigDecimal.ONE, dateRange.getEnd())));
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //WHEN
+        rateStreamService.writeRates(dateRange, RateFilter.ALL, outputStream);
+
+        //THEN
+        String expected = "{\"currencyName\":\"USD\",\"value\":1.00000,\"date\":\"2021-09-02\"}\n"
+            + "{\"currencyName\":\"USD\",\"value\":10.00000,\"date\":\"2021-09-05\"}\n";
+        assertEquals(expected, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeRates_whenSymbolsAndBase() throws IOException {
+        //GIVEN
+        RateStreamService rateStreamService = new RateStreamService(dataRepository);
+        LocalDate first = LocalDate.of(2021, 9, 2);
+        LocalDate second = LocalDate.of(2021, 9, 3);
+
+        dataRepository.saveAll(List.of(
+            new Rate("USD", new BigDecimal("2"), first),
+            new Rate("GBP", BigDecimal.ONE, first),
+            new Rate("HKD", BigDecimal.TEN, first),
+            new Rate("USD", new BigDecimal("4"), second),
+            new Rate("GBP", BigDecimal.ONE, second)));
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //WHEN
+        rateStreamService.writeRates(DateRange.parse("2021-09-01:2021-09-08"), RateFilter.of("gbp", "USD", "EUR"),
+            outputStream);
+
+        //THEN
+        String expected = "{\"currencyName\":\"GBP\",\"value\":0.50000,\"date\":\"2021-09-02\"}\n"
+            + "{\"currencyName\":\"GBP\",\"value\":0.25000,\"date\":\"2021-09-03\"}\n";
+        assertEquals(expected, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeRates_whenCsv() throws IOException {
+        //GIVEN
+        RateStreamService rateStreamService = new RateStreamService(dataRepository);
+        DateRange dateRange = DateRange.parse("2021-09-01:2021-09-08");
+
+        dataRepository.saveAll(List.of(
+            new Rate("USD", BigDecimal.TEN, dateRange.getStart().plusDays(4)),
+            new Rate("USD", BigDecimal.ONE, dateRange.getStart().plusDays(1))));
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //WHEN
+        rateStreamService.writeRates(dateRange, ExportFormat.CSV, outputStream);
+
+        //THEN
+        String expected = RateStreamService.CSV_HEADER
+            + "2021-09-02,USD,1.00000\n"
+            + "2021-09-05,USD,10.00000\n";
+        assertEquals(expected, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeRates_whenBinary() throws IOException {
+        //GIVEN
+        RateStreamService rateStreamService = new RateStreamService(dataRepository);
+        DateRange dateRange = DateRange.parse("2021-09-01:2021-09-08");
+        LocalDate day = dateRange.getStart().plusDays(1);
+
+        dataRepository.saveAll(List.of(
+            new Rate("USD", new BigDecimal("1.18"), day),
+            new Rate("GBP", new BigDecimal("0.85"), day)));
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //WHEN
+        rateStreamService.writeRates(dateRange, ExportFormat.BINARY, outputStream);
+
+        //THEN
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+        assertEquals(ExportFormat.BINARY_MAGIC, data.readInt());
+        assertEquals(RateSeriesStore.SCALE, data.readInt());
+        assertEquals(day.toEpochDay(), data.readInt());
+        assertEquals(2, data.readInt());
+        Set<String> currencies = Set.of(data.readUTF(), data.readUTF());
+        assertEquals(Set.of("USD", "GBP"), currencies);
+        assertEquals(Set.of(118_000L, 85_000L), Set.of(data.readLong(), data.readLong()));
+        assertEquals(-1, data.read());
+    }
+
+    @Test
+    void writeRates_whenNoRates() throws IOException {
+        //GIVEN
+        RateStreamService rateStreamService = new RateStreamService(dataRepository);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //WHEN
+        rateStreamService.writeRates(DateRange.parse("2021-09-05"), RateFilter.ALL, outputStream);
+
+        //THEN
+        assertEquals(0, outputStream.size());
+    }
+}
@@ -0,0 +1,92 @@
+package com.lukk.exchangeapp.service;
+
+import com.google.gson.JsonParseException;
+import com.lukk.exchangeapp.entity.Rate;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RatesParserTest {
+
+    private static final LocalDate DAY = LocalDate.of(2021, 9, 5);
+
+    private final List<List<Rate>> batches = new ArrayList<>();
+
+    @Test
+    void parse() throws IOException {
+        //GIVEN
+        String payload = "{\"success\":true,\"timestamp\":11111,\"base\":\"EUR\",\"date\":\"2021-09-05\","
+            + "\"rates\":{\"USD\":1.18,\"GBP\":0.85,\"HKD\":9.18}}";
+
+        //WHEN
+        int actual = new RatesParser(2).parse(new StringReader(payload), batches::add);
+
+        //THEN
+        assertEquals(3, actual);
+        assertEquals(2, batches.size());
+        assertEquals(List.of(new Rate("USD", new BigDecimal("1.18"), DAY),
+            new Rate("GBP", new BigDecimal("0.85"), DAY)), batches.get(0));
+        assertEquals(List.of(new Rate("HKD", new BigDecimal("9.18"), DAY)), batches.get(1));
+    }
+
+    @Test
+    void parse_whenDateAfterRates() throws IOException {
+        //GIVEN
+        String payload = "{\"rates\":{\"USD\":1.18},\"date\":\"2021-09-05\"}";
+
+        //WHEN
+        int actual = new RatesParser(2).parse(new StringReader(payload), batches::add);
+
+        //THEN
+        assertEquals(1, actual);
+        assertEquals(List.of(List.of(new Rate("USD", new BigDecimal("1.18"), DAY))), batches);
+    }
+
+    @Test
+    void parse_whenTimeSeries() throws IOException {
+        //GIVEN
+        String payload = "{\"success\":true,\"timeseries\":true,\"base\":\"EUR\","
+            + "\"rates\":{\"2021-09-04\":{\"USD\":1.17},\"2021-09-05\":{\"USD\":1.18}}}";
+
+        //WHEN
+        int actual = new RatesParser(50).parse(new StringReader(payload), batches::add);
+
+        //THEN
+        assertEquals(2, actual);
+        assertEquals(List.of(List.of(new Rate("USD", new BigDecimal("1.17"), DAY.minusDays(1)),
+            new Rate("USD", new BigDecimal("1.18"), DAY))), batches);
+    }
+
+    @Test
+    void parse_whenServiceReturnsError() {
+        //GIVEN
+        String payload = "{\"success\":false,\"error\":{\"code\":101,\"type\":\"invalid_access_key\"}}";
+
+        //WHEN
+        //THEN
+        assertThrows(JsonParseException.class,
+            () -> new RatesParser(50).parse(new StringReader(payload), batches::add));
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    void parse_whenErrorAfterRates() {
+        //GIVEN
+        String payload = "{\"date\":\"2021-09-05\",\"rates\":{\"USD\":1.18,\"GBP\":0.85},\"success\":false}";
+
+        //WHEN
+        //THEN
+        assertThrows(JsonParseException.class,
+            () -> new RatesParser(1).parse(new StringReader(payload), batches::add));
+        assertTrue(batches.isEmpty());
+    }
+}
@@ -0,0 +1,78 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import com.lukk.exchangeapp.dto.RetentionResult;
+import com.lukk.exchangeapp.repository.DataRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RetentionServiceTest {
+
+    @Mock
+    DataRepository repository;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    @Spy
+    PropertyConfig propertyConfig = new PropertyConfig();
+
+    @Spy
+    RateMetrics rateMetrics = new RateMetrics(new SimpleMeterRegistry());
+
+    @InjectMocks
+    RetentionService retentionService;
+
+    @BeforeEach
+    public void setup() {
+        propertyConfig.getRetention().setChunkSize(2);
+        doAnswer(invocation -> invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null))
+            .when(transactionTemplate).execute(any());
+    }
+
+    @Test
+    void purge_deletesInChunks() {
+        //GIVEN
+        doReturn(List.of(1L, 2L), List.of(3L)).when(repository).findIdsByDateBefore(any(), eq(PageRequest.of(0, 2)));
+        doReturn(2).when(repository).deleteByIds(List.of(1L, 2L));
+        doReturn(1).when(repository).deleteByIds(List.of(3L));
+
+        //WHEN
+        RetentionResult actual = retentionService.purge();
+
+        //THEN
+        assertEquals(3, actual.getDeleted());
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(rateMetrics).recordPurge(actual);
+    }
+
+    @Test
+    void purge_whenNothingToDelete() {
+        //GIVEN
+        doReturn(List.of()).when(repository).findIdsByDateBefore(any(), any());
+
+        //WHEN
+        RetentionResult actual = retentionService.purge();
+
+        //THEN
+        assertEquals(0, actual.getDeleted());
+        verify(repository, never()).deleteByIds(any());
+    }
+}
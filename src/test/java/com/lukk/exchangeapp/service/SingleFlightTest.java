@@ -0,0 +1,67 @@
+package com.lukk.exchangeapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+    @Test
+    void execute_whenSameKeyInFlight() {
+        //GIVEN
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<Integer> call = new CompletableFuture<>();
+        CompletableFuture<Integer> first = singleFlight.execute("2021-01-01", () -> {
+            calls.incrementAndGet();
+            return call;
+        });
+
+        //WHEN
+        CompletableFuture<Integer> second = singleFlight.execute("2021-01-01", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        call.complete(5);
+
+        //THEN
+        assertSame(first, second);
+        assertEquals(1, calls.get());
+        assertEquals(5, second.join());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void execute_whenDifferentKeys() {
+        //GIVEN
+        CompletableFuture<Integer> first = singleFlight.execute("2021-01-01", CompletableFuture::new);
+
+        //WHEN
+        CompletableFuture<Integer> second = singleFlight.execute("2021-01-02", () -> CompletableFuture.completedFuture(2));
+
+        //THEN
+        assertNotSame(first, second);
+        assertEquals(2, second.join());
+        assertEquals(1, singleFlight.inFlight());
+    }
+
+    @Test
+    void execute_whenPreviousCallFailed() {
+        //GIVEN
+        CompletableFuture<Integer> failed = singleFlight.execute("2021-01-01", () -> {
+            throw new IllegalStateException("upstream down");
+        });
+
+        //WHEN
+        CompletableFuture<Integer> actual = singleFlight.execute("2021-01-01",
+            () -> CompletableFuture.completedFuture(1));
+
+        //THEN
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals(1, actual.join());
+    }
+}
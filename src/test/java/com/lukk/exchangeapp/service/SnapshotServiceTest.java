@@ -0,0 +1,70 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.config.PropertyConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class SnapshotServiceTest {
+
+    private static final Instant NOW = Instant.parse("2021-09-06T10:00:00Z");
+
+    @TempDir
+    Path snapshotDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private PropertyConfig.Storage config;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        config = new PropertyConfig.Storage();
+        config.setSnapshotDir(snapshotDir.toString());
+        config.setSnapshots(2);
+    }
+
+    @Test
+    void snapshot() {
+        //WHEN
+        Path actual = service().snapshot();
+
+        //THEN
+        assertEquals(snapshotDir.resolve("exchange_db-20210906-100000.zip"), actual);
+        verify(jdbcTemplate).execute("BACKUP TO '" + actual.toAbsolutePath() + "'");
+    }
+
+    @Test
+    void snapshot_removesOldSnapshots() throws IOException {
+        //GIVEN
+        Path oldest = Files.createFile(snapshotDir.resolve("exchange_db-20210905-040000.zip"));
+        Path older = Files.createFile(snapshotDir.resolve("exchange_db-20210906-040000.zip"));
+        doAnswer(invocation -> Files.createFile(snapshotDir.resolve("exchange_db-20210906-100000.zip")))
+            .when(jdbcTemplate).execute(anyString());
+
+        //WHEN
+        Path actual = service().snapshot();
+
+        //THEN
+        assertTrue(Files.exists(actual));
+        assertTrue(Files.exists(older));
+        assertFalse(Files.exists(oldest));
+    }
+
+    private SnapshotService service() {
+        return new SnapshotService(jdbcTemplate, mock(TaskScheduler.class), config, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,50 @@
+package com.lukk.exchangeapp.service;
+
+import com.lukk.exchangeapp.dto.AggregateDTO;
+import com.lukk.exchangeapp.dto.RateDTO;
+import com.lukk.exchangeapp.dto.RateRow;
+import com.lukk.exchangeapp.repository.DataRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class StoredRatesLoaderTest {
+
+    private static final LocalDate DAY = LocalDate.of(2021, 9, 5);
+
+    @Test
+    void load() {
+        //GIVEN
+        DataRepository repository = mock(DataRepository.class);
+        doReturn(Stream.of(
+            new RateRow("USD", new BigDecimal("1.18"), DAY),
+            new RateRow("GBP", new BigDecimal("0.85"), DAY))).when(repository).streamRowsByOrderByDate();
+
+        RateSeriesStore rateSeriesStore = new RateSeriesStore(true);
+        RateFingerprints rateFingerprints = new RateFingerprints();
+        AggregateService aggregateService = new AggregateService();
+        StoredRatesLoader loader = new StoredRatesLoader(repository, rateSeriesStore, rateFingerprints,
+            Optional.of(aggregateService));
+
+        //WHEN
+        loader.load();
+
+        //THEN
+        verify(repository, times(1)).streamRowsByOrderByDate();
+        assertTrue(rateSeriesStore.isReady());
+        assertEquals(List.of(new RateDTO("USD", new BigDecimal("1.18000"), DAY.toString()),
+            new RateDTO("GBP", new BigDecimal("0.85000"), DAY.toString())), rateSeriesStore.get(DAY));
+        assertNotNull(rateFingerprints.etag(DateRange.parse(DAY.toString())));
+        List<AggregateDTO> aggregates = aggregateService.getAggregates(AggregateService.Period.MONTH, DAY, DAY);
+        assertEquals(2, aggregates.size());
+    }
+}
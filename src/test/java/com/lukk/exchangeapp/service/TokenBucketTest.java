@@ -0,0 +1,56 @@
+package com.lukk.exchangeapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long NOW = TimeUnit.HOURS.toNanos(1);
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_admitsBurst() {
+        //GIVEN
+        TokenBucket tokenBucket = new TokenBucket(1, 3);
+
+        //WHEN
+        long first = tokenBucket.tryAcquire(NOW);
+        long second = tokenBucket.tryAcquire(NOW);
+        long third = tokenBucket.tryAcquire(NOW);
+        long fourth = tokenBucket.tryAcquire(NOW);
+
+        //THEN
+        assertEquals(0, first + second + third);
+        assertEquals(SECOND, fourth);
+    }
+
+    @Test
+    void tryAcquire_whenRefilled() {
+        //GIVEN
+        TokenBucket tokenBucket = new TokenBucket(1, 1);
+        tokenBucket.tryAcquire(NOW);
+
+        //WHEN
+        long actual = tokenBucket.tryAcquire(NOW + SECOND);
+
+        //THEN
+        assertEquals(0, actual);
+    }
+
+    @Test
+    void isIdle() {
+        //GIVEN
+        TokenBucket tokenBucket = new TokenBucket(1, 2);
+        tokenBucket.tryAcquire(NOW);
+
+        //WHEN
+        //THEN
+        assertFalse(tokenBucket.isIdle(NOW));
+        assertTrue(tokenBucket.isIdle(NOW + SECOND));
+    }
+}